@@ -23,6 +23,7 @@ import dev.ninesliced.managers.WarpPrivacyManager;
 import dev.ninesliced.managers.PoiPrivacyManager;
 import dev.ninesliced.providers.LocationHudProvider;
 import dev.ninesliced.systems.LocationSystem;
+import dev.ninesliced.utils.WorldMapHook;
 
 import javax.annotation.Nonnull;
 import java.nio.file.Path;
@@ -117,6 +118,8 @@ public class BetterMap extends JavaPlugin {
             WaypointManager.initialize(configDir);
             LOGGER.info("Waypoint Persistence: INITIALIZED");
 
+            WorldMapHook.resolveAccessors();
+
             ExplorationManager.config()
                     .updateRate(0.5f)
                     .enablePersistence("exploration_data")
@@ -5,8 +5,9 @@ import com.hypixel.hytale.codec.builder.BuilderCodec;
 import com.hypixel.hytale.codec.codecs.array.LongArrayCodec;
 import com.hypixel.hytale.component.Component;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
-import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
-import it.unimi.dsi.fastutil.longs.LongSet;
+import dev.ninesliced.exploration.ExploredChunkSet;
+import dev.ninesliced.utils.ChunkRunEncoding;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
 
 import javax.annotation.Nonnull;
 
@@ -18,23 +19,36 @@ public class ExplorationComponent implements Component<EntityStore> {
 
     /**
      * Codec for serializing and deserializing the ExplorationComponent.
+     * Chunks are written under {@code ExploredChunksV2} as sorted varint delta runs
+     * (see {@link ChunkRunEncoding}), packed into a long array. The legacy raw
+     * {@code ExploredChunks} array is still read but no longer written.
      */
     public static final BuilderCodec<ExplorationComponent> CODEC = BuilderCodec.builder(ExplorationComponent.class, ExplorationComponent::new)
             .append(
                     new KeyedCodec<>("ExploredChunks", new LongArrayCodec()),
                     (component, chunks) -> {
                         if (chunks != null) {
-                            component.exploredChunks = new LongOpenHashSet(chunks);
-                        } else {
-                            component.exploredChunks = new LongOpenHashSet();
+                            component.exploredChunks.markAll(chunks, null);
                         }
                     },
-                    component -> component.exploredChunks.toLongArray()
+                    component -> null
+            )
+            .add()
+            .append(
+                    new KeyedCodec<>("ExploredChunksV2", new LongArrayCodec()),
+                    (component, packed) -> {
+                        if (packed != null && packed.length > 0) {
+                            LongArrayList chunks = new LongArrayList();
+                            ChunkRunEncoding.decode(ChunkRunEncoding.unpackBytes(packed), chunks::add);
+                            component.exploredChunks.markAll(chunks.toLongArray(), null);
+                        }
+                    },
+                    component -> ChunkRunEncoding.packBytes(ChunkRunEncoding.encode(component.exploredChunks.snapshot().toLongArray()))
             )
             .add()
             .build();
 
-    private LongSet exploredChunks = new LongOpenHashSet();
+    private final ExploredChunkSet exploredChunks = new ExploredChunkSet();
 
     /**
      * Constructs a new ExplorationComponent.
@@ -43,11 +57,11 @@ public class ExplorationComponent implements Component<EntityStore> {
     }
 
     /**
-     * Gets the set of explored chunk indices.
+     * Gets the thread-safe set holding the explored chunk indices.
      *
-     * @return The set of explored chunk indices.
+     * @return The explored chunk set.
      */
-    public LongSet getExploredChunks() {
+    public ExploredChunkSet getExploredChunks() {
         return exploredChunks;
     }
 
@@ -57,7 +71,7 @@ public class ExplorationComponent implements Component<EntityStore> {
      * @param chunkIndex The index of the chunk to mark as explored.
      */
     public void addExploredChunk(long chunkIndex) {
-        exploredChunks.add(chunkIndex);
+        exploredChunks.mark(chunkIndex);
     }
 
     /**
@@ -67,7 +81,7 @@ public class ExplorationComponent implements Component<EntityStore> {
      * @return True if the chunk is explored, false otherwise.
      */
     public boolean isExplored(long chunkIndex) {
-        return exploredChunks.contains(chunkIndex);
+        return exploredChunks.isExplored(chunkIndex);
     }
 
     /**
@@ -79,7 +93,7 @@ public class ExplorationComponent implements Component<EntityStore> {
     @Override
     public Component<EntityStore> clone() {
         ExplorationComponent clone = new ExplorationComponent();
-        clone.exploredChunks = new LongOpenHashSet(this.exploredChunks);
+        clone.exploredChunks.markAll(this.exploredChunks.snapshot().toLongArray(), null);
         return clone;
     }
 }
@@ -43,6 +43,13 @@ public class BetterMapConfig {
     private List<String> hiddenPoiNames = new ArrayList<>();
     private int autoSaveInterval = 5;
     private List<String> allowedWorlds = new ArrayList<>(Arrays.asList("default", "world"));
+    private ExplorationStorage explorationStorage = ExplorationStorage.BITMAP;
+    private ExplorationFileFormat explorationFileFormat = ExplorationFileFormat.FLAT;
+    private boolean lazyExplorationLoading = false;
+    private int mapUnloadBatchSize = 256;
+    private int mapUnloadBytesPerTick = 8192;
+    private int mapChunksPerTick = 256;
+    private int mapChunksPerPlayerTick = 64;
 
     private transient Path configPath;
     private transient Path configDir;
@@ -239,6 +246,48 @@ public class BetterMapConfig {
                         needsSave = true;
                     }
 
+                    if (jsonObject.has("explorationStorage") && loaded.explorationStorage != null) {
+                        this.explorationStorage = loaded.explorationStorage;
+                    } else {
+                        needsSave = true;
+                    }
+
+                    if (jsonObject.has("explorationFileFormat") && loaded.explorationFileFormat != null) {
+                        this.explorationFileFormat = loaded.explorationFileFormat;
+                    } else {
+                        needsSave = true;
+                    }
+
+                    if (jsonObject.has("lazyExplorationLoading")) {
+                        this.lazyExplorationLoading = loaded.lazyExplorationLoading;
+                    } else {
+                        needsSave = true;
+                    }
+
+                    if (jsonObject.has("mapUnloadBatchSize")) {
+                        this.mapUnloadBatchSize = loaded.mapUnloadBatchSize;
+                    } else {
+                        needsSave = true;
+                    }
+
+                    if (jsonObject.has("mapUnloadBytesPerTick")) {
+                        this.mapUnloadBytesPerTick = loaded.mapUnloadBytesPerTick;
+                    } else {
+                        needsSave = true;
+                    }
+
+                    if (jsonObject.has("mapChunksPerTick")) {
+                        this.mapChunksPerTick = loaded.mapChunksPerTick;
+                    } else {
+                        needsSave = true;
+                    }
+
+                    if (jsonObject.has("mapChunksPerPlayerTick")) {
+                        this.mapChunksPerPlayerTick = loaded.mapChunksPerPlayerTick;
+                    } else {
+                        needsSave = true;
+                    }
+
                     if (needsSave) {
                         save();
                     }
@@ -763,6 +812,85 @@ public class BetterMapConfig {
         return false;
     }
 
+    /**
+     * Gets the storage type used for explored chunk sets.
+     *
+     * @return The exploration storage type.
+     */
+    public ExplorationStorage getExplorationStorage() {
+        return explorationStorage != null ? explorationStorage : ExplorationStorage.BITMAP;
+    }
+
+    /**
+     * Gets the on-disk format used to save explored chunks.
+     *
+     * @return The exploration file format.
+     */
+    public ExplorationFileFormat getExplorationFileFormat() {
+        return explorationFileFormat != null ? explorationFileFormat : ExplorationFileFormat.FLAT;
+    }
+
+    /**
+     * Checks if region-file exploration is loaded lazily, only near the player at join.
+     *
+     * @return True if lazy loading is enabled.
+     */
+    public boolean isLazyExplorationLoading() {
+        return lazyExplorationLoading;
+    }
+
+    /**
+     * Gets the maximum number of map chunk removals sent in one packet.
+     *
+     * @return The batch size, at least 1.
+     */
+    public int getMapUnloadBatchSize() {
+        return Math.max(1, mapUnloadBatchSize);
+    }
+
+    /**
+     * Gets the estimated bytes of map chunk removals sent to a player per tick.
+     *
+     * @return The byte budget, at least 1.
+     */
+    public int getMapUnloadBytesPerTick() {
+        return Math.max(1, mapUnloadBytesPerTick);
+    }
+
+    /**
+     * Gets the maximum number of new map chunks sent to all players per tick.
+     *
+     * @return The server-wide budget, or 0 or less for no limit.
+     */
+    public int getMapChunksPerTick() {
+        return mapChunksPerTick;
+    }
+
+    /**
+     * Gets the maximum number of new map chunks sent to one player per tick.
+     *
+     * @return The per-player budget, or 0 or less for no limit.
+     */
+    public int getMapChunksPerPlayerTick() {
+        return mapChunksPerPlayerTick;
+    }
+
+    /**
+     * Enum representing the available explored chunk storage engines.
+     */
+    public enum ExplorationStorage {
+        HASH,
+        BITMAP
+    }
+
+    /**
+     * Enum representing the available on-disk formats for explored chunks.
+     */
+    public enum ExplorationFileFormat {
+        FLAT,
+        REGION
+    }
+
     /**
      * Enum representing different map quality settings.
      */
@@ -0,0 +1,289 @@
+package dev.ninesliced.configs;
+
+import dev.ninesliced.exploration.ExploredChunkView;
+
+import javax.annotation.Nonnull;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.function.LongConsumer;
+import java.util.logging.Logger;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Reads and writes a player's base exploration file.
+ * <p>
+ * Version 2 layout (big-endian): int magic, int version, int chunk count, the chunk
+ * indices, then a CRC32C of everything before it. Files are written to a temporary file
+ * and atomically renamed over the target; the previous generation is kept as
+ * {@code <name>.bak} and is read instead when the current file is missing, truncated or
+ * fails its checksum. Version 1 files (int version, int count, indices) are still read.
+ */
+public class ExplorationBaseFile {
+    /**
+     * File extension of base files.
+     */
+    public static final String EXTENSION = ".bin";
+
+    /**
+     * Format version written by {@link #write}.
+     */
+    public static final int VERSION = 2;
+
+    private static final Logger LOGGER = Logger.getLogger(ExplorationBaseFile.class.getName());
+    private static final int MAGIC = 0x424D4558;
+    private static final int LEGACY_VERSION = 1;
+    private static final int HEADER_BYTES = 12;
+    private static final int TRAILER_BYTES = 4;
+
+    private ExplorationBaseFile() {
+    }
+
+    /**
+     * Writes a base file atomically, keeping the previous generation as a backup.
+     *
+     * @param file   The base file.
+     * @param chunks The explored chunks to write.
+     * @throws IOException If the write fails; the existing file is left untouched.
+     */
+    public static void write(@Nonnull Path file, @Nonnull ExploredChunkView chunks) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (FileOutputStream fileOut = new FileOutputStream(temp.toFile());
+             OutputStream raw = new BufferedOutputStream(fileOut)) {
+            writeTo(raw, chunks);
+            raw.flush();
+            fileOut.getFD().sync();
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        if (Files.exists(file)) {
+            Files.move(file, backupFor(file), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Encodes chunks in the base file layout without touching the disk.
+     *
+     * @param chunks The explored chunks.
+     * @return The file contents {@link #write} would produce.
+     */
+    @Nonnull
+    public static byte[] encode(@Nonnull ExploredChunkView chunks) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(HEADER_BYTES + chunks.count() * Long.BYTES + TRAILER_BYTES);
+        try {
+            writeTo(out, chunks);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Reads a base file, falling back to its backup when the file is missing or corrupt.
+     * Chunks are only handed to the consumer once the whole file has been verified.
+     *
+     * @param file   The base file.
+     * @param action The consumer receiving each chunk index.
+     * @return The number of chunks read, or 0 if neither the file nor its backup is usable.
+     * @throws IOException If a file exists but cannot be read.
+     */
+    public static int read(@Nonnull Path file, @Nonnull LongConsumer action) throws IOException {
+        long[] chunks = readAll(file);
+        for (long chunk : chunks) {
+            action.accept(chunk);
+        }
+        return chunks.length;
+    }
+
+    /**
+     * Reads and verifies a whole base file in one go, falling back to its backup when the
+     * file is missing or corrupt.
+     *
+     * @param file The base file.
+     * @return The chunk indices, empty if neither the file nor its backup is usable.
+     * @throws IOException If a file exists but cannot be read.
+     */
+    @Nonnull
+    public static long[] readAll(@Nonnull Path file) throws IOException {
+        long[] chunks = readVerified(file, false);
+        if (chunks == null) {
+            Path backup = backupFor(file);
+            chunks = readVerified(backup, false);
+            if (chunks == null) {
+                return new long[0];
+            }
+            LOGGER.warning("Recovered exploration data for " + file.getFileName() + " from " + backup.getFileName());
+        }
+        return chunks;
+    }
+
+    /**
+     * Reads and verifies a base file without falling back to its backup.
+     *
+     * @param file The base file.
+     * @return The chunk indices.
+     * @throws IOException If the file is missing, cannot be read, or fails verification.
+     */
+    @Nonnull
+    public static long[] readStrict(@Nonnull Path file) throws IOException {
+        long[] chunks = readVerified(file, true);
+        if (chunks == null) {
+            throw new NoSuchFileException(file.toString());
+        }
+        return chunks;
+    }
+
+    /**
+     * Decodes and verifies base file contents held in memory.
+     *
+     * @param data The file contents.
+     * @return The chunk indices.
+     * @throws IOException If the contents fail verification.
+     */
+    @Nonnull
+    public static long[] decode(@Nonnull byte[] data) throws IOException {
+        return decode(ByteBuffer.wrap(data), "encoded data");
+    }
+
+    /**
+     * Reads the format version of a base file without reading its chunks.
+     *
+     * @param file The base file.
+     * @return The version, or -1 if the file is missing or not a base file.
+     * @throws IOException If the file cannot be read.
+     */
+    public static int readVersion(@Nonnull Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            int first = in.readInt();
+            if (first == LEGACY_VERSION) {
+                return LEGACY_VERSION;
+            }
+            return first == MAGIC ? in.readInt() : -1;
+        } catch (NoSuchFileException | EOFException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Checks if a base file or its backup exists.
+     *
+     * @param file The base file.
+     * @return True if there is something to read.
+     */
+    public static boolean exists(@Nonnull Path file) {
+        return Files.exists(file) || Files.exists(backupFor(file));
+    }
+
+    /**
+     * Deletes a base file and its backup.
+     *
+     * @param file The base file.
+     * @throws IOException If a file cannot be deleted.
+     */
+    public static void delete(@Nonnull Path file) throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(backupFor(file));
+    }
+
+    /**
+     * Reads and verifies one file.
+     *
+     * @param strict True to throw when verification fails instead of logging it.
+     * @return The chunks, or null if the file is missing or, when not strict, fails verification.
+     */
+    private static long[] readVerified(Path file, boolean strict) throws IOException {
+        ByteBuffer buffer = ExplorationBulkLoader.readFully(file);
+        if (buffer == null) {
+            return null;
+        }
+
+        try {
+            return decode(buffer, file.getFileName().toString());
+        } catch (IOException e) {
+            if (strict) {
+                throw e;
+            }
+            LOGGER.warning(e.getMessage());
+            return null;
+        }
+    }
+
+    private static long[] decode(ByteBuffer buffer, String name) throws IOException {
+        int length = buffer.limit();
+        if (length < 8) {
+            throw new IOException("Truncated exploration data in " + name);
+        }
+
+        int first = buffer.getInt(0);
+        if (first == LEGACY_VERSION) {
+            int count = buffer.getInt(4);
+            if (count < 0 || length - 8 < (long) count * Long.BYTES) {
+                throw new IOException("Truncated exploration data in " + name);
+            }
+            return ExplorationBulkLoader.decode(buffer, 8, count);
+        }
+
+        if (first != MAGIC) {
+            throw new IOException("Unknown exploration data format in " + name);
+        }
+
+        int version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new IOException("Unknown exploration data version in " + name + ": " + version);
+        }
+
+        if (length < HEADER_BYTES + TRAILER_BYTES) {
+            throw new IOException("Truncated exploration data in " + name);
+        }
+
+        int count = buffer.getInt(8);
+        if (count < 0 || length != HEADER_BYTES + (long) count * Long.BYTES + TRAILER_BYTES) {
+            throw new IOException("Exploration data in " + name + " has the wrong length for " + count + " chunks");
+        }
+
+        CRC32C crc = new CRC32C();
+        buffer.limit(length - TRAILER_BYTES);
+        crc.update(buffer);
+        buffer.limit(length);
+        if ((int) crc.getValue() != buffer.getInt(length - TRAILER_BYTES)) {
+            throw new IOException("Checksum mismatch in exploration data " + name);
+        }
+
+        return ExplorationBulkLoader.decode(buffer, HEADER_BYTES, count);
+    }
+
+    private static void writeTo(OutputStream raw, ExploredChunkView chunks) throws IOException {
+        CRC32C crc = new CRC32C();
+        DataOutputStream out = new DataOutputStream(new CheckedOutputStream(raw, crc));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(chunks.count());
+
+        try {
+            chunks.forEach(chunk -> {
+                try {
+                    out.writeLong(chunk);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        out.flush();
+        new DataOutputStream(raw).writeInt((int) crc.getValue());
+    }
+
+    private static Path backupFor(Path file) {
+        return file.resolveSibling(file.getFileName() + ".bak");
+    }
+}
@@ -0,0 +1,159 @@
+package dev.ninesliced.configs;
+
+import dev.ninesliced.exploration.ExploredChunkStore;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Bulk reader for exploration files.
+ * <p>
+ * Files are read whole through a {@link FileChannel} and decoded through a {@link LongBuffer}
+ * view, instead of one {@code readLong()} call per chunk. Files up to
+ * {@link #MAX_CACHED_BUFFER_BYTES} go into a small per-thread direct buffer; larger ones get
+ * a heap buffer that is dropped after the call, read in slices so the JDK's own temporary
+ * direct buffers stay small too. No thread keeps more than that cap alive between loads.
+ * <p>
+ * World unions read their files in parallel on one shared fork-join pool sized to the
+ * machine, then merge the decoded arrays on the calling thread. Its idle workers exit on
+ * their own, taking their buffers with them.
+ */
+public final class ExplorationBulkLoader {
+
+    private static final Logger LOGGER = Logger.getLogger(ExplorationBulkLoader.class.getName());
+    private static final int INITIAL_BUFFER_BYTES = 64 * 1024;
+    private static final int MAX_CACHED_BUFFER_BYTES = 256 * 1024;
+    private static final ThreadLocal<ByteBuffer> BUFFERS = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(INITIAL_BUFFER_BYTES));
+    private static final ForkJoinPool LOAD_POOL = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors()));
+
+    private ExplorationBulkLoader() {
+    }
+
+    /**
+     * Reads a whole file into a buffer. Small files land in a direct buffer owned by the
+     * calling thread that is reused by the next call on the same thread, so decode it
+     * before reading another file.
+     *
+     * @param file The file to read.
+     * @return The buffer positioned at 0 with the file length as limit, or null if the file does not exist.
+     * @throws IOException If the file cannot be read.
+     */
+    @Nullable
+    static ByteBuffer readFully(@Nonnull Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Exploration file too large: " + file.getFileName());
+            }
+
+            ByteBuffer buffer = bufferFor((int) size);
+            int end = buffer.limit();
+            do {
+                // Cap each read so a heap buffer never needs a temporary direct buffer larger than the cache.
+                buffer.limit(Math.min(end, buffer.position() + MAX_CACHED_BUFFER_BYTES));
+            } while (channel.read(buffer) >= 0 && buffer.position() < end);
+            buffer.flip();
+            return buffer;
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Decodes big-endian chunk indices from a buffer.
+     *
+     * @param buffer The buffer holding the file.
+     * @param offset The byte offset of the first index.
+     * @param count  The number of indices.
+     * @return The decoded indices.
+     */
+    @Nonnull
+    static long[] decode(@Nonnull ByteBuffer buffer, int offset, int count) {
+        long[] chunks = new long[count];
+        LongBuffer longs = buffer.duplicate().position(offset).slice().asLongBuffer();
+        longs.get(chunks, 0, count);
+        return chunks;
+    }
+
+    /**
+     * Reads every base file and journal in a world directory in parallel.
+     *
+     * @param worldDir The world's exploration directory.
+     * @param include  Filter choosing which files to read.
+     * @return A store holding every chunk read.
+     */
+    @Nonnull
+    public static ExploredChunkStore loadWorld(@Nonnull Path worldDir, @Nonnull Predicate<Path> include) {
+        ExploredChunkStore allChunks = ExploredChunkStore.create();
+
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> stream = Files.list(worldDir)) {
+            stream.filter(include).forEach(files::add);
+        } catch (NoSuchFileException e) {
+            return allChunks;
+        } catch (IOException e) {
+            LOGGER.severe("Failed to list files in " + worldDir + ": " + e.getMessage());
+            return allChunks;
+        }
+
+        try {
+            List<long[]> decoded = LOAD_POOL.submit(() -> files.parallelStream().map(ExplorationBulkLoader::readFile).toList()).get();
+            for (long[] chunks : decoded) {
+                for (long chunk : chunks) {
+                    allChunks.mark(chunk);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            LOGGER.severe("Failed to load exploration files in " + worldDir + ": " + e.getCause().getMessage());
+        }
+
+        return allChunks;
+    }
+
+    private static long[] readFile(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            if (name.endsWith(ExplorationBaseFile.EXTENSION)) {
+                return ExplorationBaseFile.readAll(file);
+            }
+            if (name.endsWith(ExplorationJournal.EXTENSION)) {
+                return ExplorationJournal.readAll(file);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            LOGGER.warning("Failed to load chunk data from " + name + ": " + e.getMessage());
+        }
+        return new long[0];
+    }
+
+    private static ByteBuffer bufferFor(int size) {
+        if (size > MAX_CACHED_BUFFER_BYTES) {
+            return ByteBuffer.allocate(size);
+        }
+
+        ByteBuffer buffer = BUFFERS.get();
+        if (buffer.capacity() < size) {
+            buffer = ByteBuffer.allocateDirect(size);
+            BUFFERS.set(buffer);
+        }
+        buffer.clear().limit(size);
+        return buffer;
+    }
+}
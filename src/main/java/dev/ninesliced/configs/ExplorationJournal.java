@@ -0,0 +1,285 @@
+package dev.ninesliced.configs;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.LongConsumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of newly explored chunks, stored next to a player's base file.
+ * <p>
+ * The file starts with an int magic. Each save appends one record: an int chunk count,
+ * the chunk indices, then a CRC32C of the count and indices. Records are fsynced as they
+ * are appended. Replay stops at the first record that is short or fails its checksum, and
+ * the next append truncates the file back to the last valid record first, so a record cut
+ * short by a crash is dropped rather than read against the records after it. Callers that
+ * keep the end of the valid records from the previous append or load pass it back in, so
+ * an append writes the record without reading the journal. Replaying the
+ * journal over the base file restores the full set; replay is idempotent, so a journal
+ * that was already folded into the base is harmless. Journals written before the checksum
+ * (no magic, records without a CRC) are still read, and are rewritten in the current
+ * layout on the next append.
+ */
+public class ExplorationJournal {
+    /**
+     * File extension of journal files.
+     */
+    public static final String EXTENSION = ".log";
+
+    private static final int MAGIC = 0x424D4A32;
+    private static final int HEADER_BYTES = Integer.BYTES;
+    private static final int RECORD_OVERHEAD = Integer.BYTES * 2;
+
+    private ExplorationJournal() {
+    }
+
+    /**
+     * Appends one record to a journal, creating the file if needed. A torn record left by
+     * a crash is cut off before the new record is written.
+     *
+     * @param journal The journal file.
+     * @param chunks  The newly explored chunk indices.
+     * @return The byte offset just past the appended record, or -1 if nothing was appended.
+     * @throws IOException If the write fails.
+     */
+    public static long append(@Nonnull Path journal, @Nonnull LongArrayList chunks) throws IOException {
+        return append(journal, chunks, -1);
+    }
+
+    /**
+     * Appends one record at a known end of the valid records, so the journal is not read
+     * again. Anything past that offset, such as a record torn by a crash, is cut off first.
+     *
+     * @param journal  The journal file.
+     * @param chunks   The newly explored chunk indices.
+     * @param validEnd The end returned by the previous append or by {@link #readInto}, or -1
+     *                 to find it by reading the journal.
+     * @return The byte offset just past the appended record, to pass to the next append;
+     * the given end if there was nothing to append.
+     * @throws IOException If the write fails; the end is then unknown and the caller should
+     *                     pass -1 next time.
+     */
+    public static long append(@Nonnull Path journal, @Nonnull LongArrayList chunks, long validEnd) throws IOException {
+        if (chunks.isEmpty()) {
+            return validEnd;
+        }
+        if (validEnd < 0) {
+            ByteBuffer existing = ExplorationBulkLoader.readFully(journal);
+            if (existing == null || existing.limit() == 0) {
+                validEnd = 0;
+            } else if (existing.limit() >= HEADER_BYTES && existing.getInt(0) == MAGIC) {
+                validEnd = scan(existing, null);
+            } else {
+                // Pre-checksum journal: rewrite it as one checked record before appending.
+                LongArrayList legacy = new LongArrayList();
+                readLegacy(existing, legacy);
+                legacy.addAll(chunks);
+                return rewrite(journal, legacy);
+            }
+        }
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            if (size >= validEnd) {
+                if (size > validEnd) {
+                    channel.truncate(validEnd);
+                }
+                ByteBuffer record = encode(chunks, validEnd == 0);
+                long position = validEnd;
+                while (record.hasRemaining()) {
+                    position += channel.write(record, position);
+                }
+                channel.force(false);
+                return position;
+            }
+        }
+        // Shorter than the given end: the journal was deleted or replaced since, so find the end again.
+        return append(journal, chunks, -1);
+    }
+
+    /**
+     * Replays every valid record of a journal.
+     *
+     * @param journal The journal file.
+     * @param action  The consumer receiving each chunk index.
+     * @return The number of chunk indices read, or 0 if the journal does not exist.
+     * @throws IOException If the file cannot be read.
+     */
+    public static long read(@Nonnull Path journal, @Nonnull LongConsumer action) throws IOException {
+        long[] chunks = readAll(journal);
+        for (long chunk : chunks) {
+            action.accept(chunk);
+        }
+        return chunks.length;
+    }
+
+    /**
+     * Reads every valid record of a journal in one go, stopping at the first record that
+     * is short or fails its checksum.
+     *
+     * @param journal The journal file.
+     * @return The chunk indices of all valid records, empty if the journal does not exist.
+     * @throws IOException If the file cannot be read.
+     */
+    @Nonnull
+    public static long[] readAll(@Nonnull Path journal) throws IOException {
+        return read(journal, false);
+    }
+
+    /**
+     * Reads a whole journal, failing instead of stopping early when a record is short or
+     * fails its checksum.
+     *
+     * @param journal The journal file.
+     * @return The chunk indices, empty if the journal does not exist.
+     * @throws IOException If the file cannot be read or holds an invalid record.
+     */
+    @Nonnull
+    public static long[] readStrict(@Nonnull Path journal) throws IOException {
+        return read(journal, true);
+    }
+
+    /**
+     * Reads every valid record of a journal into a list and reports where they end, so
+     * later appends can skip reading the journal again.
+     *
+     * @param journal The journal file.
+     * @param chunks  The list receiving the chunk indices.
+     * @return The byte offset just past the last valid record for {@link #append(Path, LongArrayList, long)},
+     * or -1 if the journal is in the pre-checksum layout and has to be read again to be upgraded.
+     * @throws IOException If the file cannot be read.
+     */
+    public static long readInto(@Nonnull Path journal, @Nonnull LongArrayList chunks) throws IOException {
+        ByteBuffer buffer = ExplorationBulkLoader.readFully(journal);
+        if (buffer == null || buffer.limit() == 0) {
+            return 0;
+        }
+        if (buffer.limit() >= HEADER_BYTES && buffer.getInt(0) == MAGIC) {
+            return scan(buffer, chunks);
+        }
+        readLegacy(buffer, chunks);
+        return -1;
+    }
+
+    private static long[] read(Path journal, boolean strict) throws IOException {
+        ByteBuffer buffer = ExplorationBulkLoader.readFully(journal);
+        if (buffer == null || buffer.limit() == 0) {
+            return new long[0];
+        }
+
+        LongArrayList chunks = new LongArrayList();
+        long end = buffer.limit() >= HEADER_BYTES && buffer.getInt(0) == MAGIC
+                ? scan(buffer, chunks)
+                : readLegacy(buffer, chunks);
+        if (strict && end != buffer.limit()) {
+            throw new IOException("Invalid journal record at byte " + end + " of " + journal.getFileName());
+        }
+        return chunks.toLongArray();
+    }
+
+    /**
+     * Walks the records after the header, collecting their chunks.
+     *
+     * @return The byte offset just past the last valid record.
+     */
+    private static long scan(ByteBuffer buffer, LongArrayList chunks) {
+        int position = HEADER_BYTES;
+        int length = buffer.limit();
+        CRC32C crc = new CRC32C();
+        while (length - position >= RECORD_OVERHEAD) {
+            int count = buffer.getInt(position);
+            long bodyBytes = Integer.BYTES + (long) count * Long.BYTES;
+            if (count <= 0 || length - position - Integer.BYTES < bodyBytes) {
+                break;
+            }
+
+            crc.reset();
+            crc.update(buffer.duplicate().position(position).limit(position + (int) bodyBytes));
+            if ((int) crc.getValue() != buffer.getInt(position + (int) bodyBytes)) {
+                break;
+            }
+
+            if (chunks != null) {
+                chunks.addElements(chunks.size(), ExplorationBulkLoader.decode(buffer, position + Integer.BYTES, count));
+            }
+            position += (int) bodyBytes + Integer.BYTES;
+        }
+        return position;
+    }
+
+    /**
+     * Walks the records of a pre-checksum journal, collecting their chunks.
+     *
+     * @return The byte offset just past the last complete record.
+     */
+    private static long readLegacy(ByteBuffer buffer, LongArrayList chunks) {
+        int position = 0;
+        int length = buffer.limit();
+        while (length - position >= Integer.BYTES) {
+            int count = buffer.getInt(position);
+            if (count < 0 || length - position - Integer.BYTES < (long) count * Long.BYTES) {
+                break;
+            }
+            chunks.addElements(chunks.size(), ExplorationBulkLoader.decode(buffer, position + Integer.BYTES, count));
+            position += Integer.BYTES + count * Long.BYTES;
+        }
+        return position;
+    }
+
+    private static ByteBuffer encode(LongArrayList chunks, boolean withHeader) {
+        int size = (withHeader ? HEADER_BYTES : 0) + RECORD_OVERHEAD + chunks.size() * Long.BYTES;
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        if (withHeader) {
+            buffer.putInt(MAGIC);
+        }
+        int start = buffer.position();
+        buffer.putInt(chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            buffer.putLong(chunks.getLong(i));
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), start, buffer.position() - start);
+        buffer.putInt((int) crc.getValue());
+        return buffer.flip();
+    }
+
+    private static long rewrite(Path journal, LongArrayList chunks) throws IOException {
+        Path temp = journal.resolveSibling(journal.getFileName() + ".tmp");
+        ByteBuffer record = encode(chunks, true);
+        long size = record.remaining();
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, journal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return size;
+    }
+
+    /**
+     * Gets the journal file belonging to a base file.
+     *
+     * @param baseFile The player's base file.
+     * @return The journal path.
+     */
+    @Nonnull
+    public static Path journalFor(@Nonnull Path baseFile) {
+        String name = baseFile.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String stem = dot > 0 ? name.substring(0, dot) : name;
+        return baseFile.resolveSibling(stem + EXTENSION);
+    }
+}
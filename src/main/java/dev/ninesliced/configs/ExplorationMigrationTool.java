@@ -0,0 +1,295 @@
+package dev.ninesliced.configs;
+
+import dev.ninesliced.exploration.ExploredChunkStore;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Offline converter and verifier for saved exploration data. It only touches files on disk,
+ * so it runs without a server:
+ * <pre>
+ * java -cp BetterMap.jar:HytaleServer.jar dev.ninesliced.configs.ExplorationMigrationTool [dataDir] [--format=flat|region] [--verify-only]
+ * </pre>
+ * Every player base file and journal under {@code dataDir} (default {@code mods/BetterMap/Data})
+ * is folded into the target format in parallel: a checksummed v2 base file for {@code flat},
+ * or region files for {@code region}. Sources are read strictly: a base file that fails its
+ * checksum or a journal with a bad record fails that player instead of falling back to the
+ * backup or a shorter journal, and nothing of theirs is touched. Each player's chunks are
+ * encoded and decoded in memory first, and each conversion is read back and compared with
+ * the source before the old files are removed. {@code --verify-only} runs the reads and the
+ * in-memory round-trip without writing. A summary with throughput and size change is printed;
+ * the size change compares the converted players' flat files with what their conversion
+ * added on disk, measured over the whole region directories in region mode.
+ * <p>
+ * Stop the server before running it; the tool does not coordinate with a live save.
+ */
+public final class ExplorationMigrationTool {
+
+    private final Path dataDir;
+    private final boolean toRegion;
+    private final boolean verifyOnly;
+
+    private final AtomicInteger converted = new AtomicInteger();
+    private final AtomicInteger verified = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicLong chunks = new AtomicLong();
+    private final AtomicLong bytesBefore = new AtomicLong();
+    private final AtomicLong bytesReplaced = new AtomicLong();
+    private final AtomicLong bytesAfter = new AtomicLong();
+
+    private ExplorationMigrationTool(Path dataDir, boolean toRegion, boolean verifyOnly) {
+        this.dataDir = dataDir;
+        this.toRegion = toRegion;
+        this.verifyOnly = verifyOnly;
+    }
+
+    /**
+     * Runs the tool.
+     *
+     * @param args {@code [dataDir] [--format=flat|region] [--verify-only]}.
+     */
+    public static void main(String[] args) {
+        Path dataDir = Paths.get("mods", "BetterMap", "Data");
+        boolean toRegion = false;
+        boolean verifyOnly = false;
+
+        for (String arg : args) {
+            if (arg.equals("--verify-only")) {
+                verifyOnly = true;
+            } else if (arg.equals("--format=region")) {
+                toRegion = true;
+            } else if (arg.equals("--format=flat")) {
+                toRegion = false;
+            } else if (arg.startsWith("--")) {
+                System.err.println("Unknown option: " + arg);
+                System.exit(2);
+                return;
+            } else {
+                dataDir = Paths.get(arg);
+            }
+        }
+
+        if (!Files.isDirectory(dataDir)) {
+            System.err.println("Not a directory: " + dataDir.toAbsolutePath());
+            System.exit(2);
+            return;
+        }
+
+        ExplorationMigrationTool tool = new ExplorationMigrationTool(dataDir, toRegion, verifyOnly);
+        System.exit(tool.run() ? 0 : 1);
+    }
+
+    private boolean run() {
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> worlds = Files.list(dataDir)) {
+            for (Path worldDir : (Iterable<Path>) worlds::iterator) {
+                if (!Files.isDirectory(worldDir)) {
+                    continue;
+                }
+                try (Stream<Path> stream = Files.list(worldDir)) {
+                    stream.filter(ExplorationMigrationTool::isPlayerBaseFile).forEach(files::add);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to scan " + dataDir + ": " + e.getMessage());
+            return false;
+        }
+
+        System.out.println((verifyOnly ? "Verifying " : "Converting ") + files.size() + " player files in "
+                + dataDir.toAbsolutePath() + " to " + (toRegion ? "region" : "flat v" + ExplorationBaseFile.VERSION) + " format");
+
+        long regionBytesBefore = toRegion && !verifyOnly ? regionBytes() : 0;
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors()));
+        try {
+            pool.submit(() -> files.parallelStream().forEach(this::migrate)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            System.err.println("Migration aborted: " + e.getCause());
+            return false;
+        } finally {
+            pool.shutdown();
+        }
+        double seconds = Math.max(1e-9, (System.nanoTime() - start) / 1e9);
+        if (toRegion && !verifyOnly) {
+            // Region files are shared between players, so only the directory totals tell what was added.
+            bytesAfter.set(regionBytes() - regionBytesBefore);
+        }
+
+        if (verifyOnly) {
+            System.out.printf("Files: %d verified, %d failed%n", verified.get(), failed.get());
+        } else {
+            System.out.printf("Files: %d converted, %d already current, %d failed%n", converted.get(), skipped.get(), failed.get());
+        }
+        System.out.printf("Chunks: %d in %.2fs (%.0f chunks/s, %.1f MB/s read)%n",
+                chunks.get(), seconds, chunks.get() / seconds, bytesBefore.get() / seconds / (1024 * 1024));
+        if (!verifyOnly && converted.get() > 0) {
+            long before = bytesReplaced.get();
+            long after = bytesAfter.get();
+            System.out.printf("Size: %d -> %d bytes (%.1f%% %s)%n", before, after,
+                    before == 0 ? 0.0 : Math.abs(100.0 * (before - after) / before), after <= before ? "smaller" : "larger");
+        }
+        return failed.get() == 0;
+    }
+
+    private void migrate(Path file) {
+        Path journal = ExplorationJournal.journalFor(file);
+        String name = file.getFileName().toString();
+        try {
+            UUID player = UUID.fromString(name.substring(0, name.length() - ExplorationBaseFile.EXTENSION.length()));
+            long size = Files.size(file) + (Files.exists(journal) ? Files.size(journal) : 0);
+            long[] flat = concat(ExplorationBaseFile.readStrict(file), ExplorationJournal.readStrict(journal));
+            bytesBefore.addAndGet(size);
+
+            RegionFileStorage regions = new RegionFileStorage(file.getParent());
+            long[] expected;
+            if (toRegion && regions.hasPlayer(player)) {
+                // Region data already saved for this player stays; the flat data is merged into it.
+                LongArrayList existing = new LongArrayList(flat);
+                regions.readPlayer(player, existing::add);
+                expected = distinctSorted(existing.toLongArray());
+            } else {
+                expected = distinctSorted(flat);
+            }
+            chunks.addAndGet(expected.length);
+
+            ExploredChunkStore store = ExploredChunkStore.create(BetterMapConfig.ExplorationStorage.BITMAP);
+            for (long chunk : expected) {
+                store.mark(chunk);
+            }
+
+            long[] encoded = roundTrip(store);
+            if (!Arrays.equals(expected, encoded)) {
+                System.err.println("Round-trip failed for " + file + ": " + expected.length + " chunks expected, " + encoded.length + " decoded");
+                failed.incrementAndGet();
+                return;
+            }
+            if (verifyOnly) {
+                verified.incrementAndGet();
+                return;
+            }
+
+            boolean current = !toRegion && !Files.exists(journal) && ExplorationBaseFile.readVersion(file) == ExplorationBaseFile.VERSION;
+            if (current) {
+                skipped.incrementAndGet();
+                return;
+            }
+
+            long[] actual;
+            if (toRegion) {
+                Long2ObjectOpenHashMap<long[]> bitmaps = RegionFileStorage.collectRegions(store, null);
+                regions.writeRegions(player, bitmaps);
+                LongArrayList readBack = new LongArrayList(expected.length);
+                regions.readPlayer(player, readBack::add);
+                actual = distinctSorted(readBack.toLongArray());
+            } else {
+                ExplorationBaseFile.write(file, store);
+                actual = distinctSorted(ExplorationBaseFile.readAll(file));
+            }
+
+            if (!Arrays.equals(expected, actual)) {
+                System.err.println("Verification failed for " + file + ": " + expected.length + " chunks expected, " + actual.length + " read back");
+                failed.incrementAndGet();
+                return;
+            }
+
+            if (toRegion) {
+                ExplorationBaseFile.delete(file);
+            }
+            Files.deleteIfExists(journal);
+            bytesReplaced.addAndGet(size);
+            if (!toRegion) {
+                bytesAfter.addAndGet(Files.size(file));
+            }
+            converted.incrementAndGet();
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Failed to migrate " + file + ": " + e.getMessage());
+            failed.incrementAndGet();
+        }
+    }
+
+    /**
+     * Encodes chunks in the target format and decodes them again without touching the disk.
+     */
+    private long[] roundTrip(ExploredChunkStore store) throws IOException {
+        if (toRegion) {
+            LongArrayList decoded = new LongArrayList(store.count());
+            RegionFileStorage.expandRegions(RegionFileStorage.collectRegions(store, null), decoded::add);
+            return distinctSorted(decoded.toLongArray());
+        }
+        return distinctSorted(ExplorationBaseFile.decode(ExplorationBaseFile.encode(store)));
+    }
+
+    /**
+     * Sums the size of every region directory under the data directory.
+     */
+    private long regionBytes() {
+        long total = 0;
+        try (Stream<Path> worlds = Files.list(dataDir)) {
+            for (Path worldDir : (Iterable<Path>) worlds::iterator) {
+                Path regionDir = worldDir.resolve(RegionFileStorage.DIRECTORY);
+                if (!Files.isDirectory(regionDir)) {
+                    continue;
+                }
+                try (Stream<Path> stream = Files.list(regionDir)) {
+                    for (Path file : (Iterable<Path>) stream::iterator) {
+                        if (Files.isRegularFile(file) && !file.getFileName().toString().endsWith(".tmp")) {
+                            total += Files.size(file);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to measure region files in " + dataDir + ": " + e.getMessage());
+        }
+        return total;
+    }
+
+    private static boolean isPlayerBaseFile(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.endsWith(ExplorationBaseFile.EXTENSION)) {
+            return false;
+        }
+        try {
+            UUID.fromString(name.substring(0, name.length() - ExplorationBaseFile.EXTENSION.length()));
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static long[] concat(long[] first, long[] second) {
+        long[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    private static long[] distinctSorted(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int size = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (size == 0 || sorted[size - 1] != sorted[i]) {
+                sorted[size++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, size);
+    }
+}
@@ -4,32 +4,76 @@ import com.hypixel.hytale.component.Holder;
 import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.server.core.entity.UUIDComponent;
 import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
 import com.hypixel.hytale.server.core.command.system.CommandSender;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.universe.Universe;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import dev.ninesliced.exploration.ExplorationTracker;
+import dev.ninesliced.exploration.ExploredChunkDeltaLog;
+import dev.ninesliced.exploration.ExploredChunkStore;
+import dev.ninesliced.exploration.ExploredChunkView;
+import dev.ninesliced.exploration.ExploredChunksTracker;
+import dev.ninesliced.exploration.RegionBitmapChunkStore;
 import dev.ninesliced.utils.ChunkUtil;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.*;
+import java.lang.ref.WeakReference;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 
 /**
  * Handles persistence of exploration data to disk.
+ * <p>
+ * Each player has a checksummed base file ({@code <uuid>.bin}, see {@link ExplorationBaseFile}) and an append-only journal
+ * ({@code <uuid>.log}, see {@link ExplorationJournal}). Saves append only the chunks
+ * explored since the previous save, read from the player's delta log, so autosave I/O
+ * follows new exploration rather than total exploration. A background compactor folds
+ * the journal into the base file once it grows past a threshold.
+ * <p>
+ * With the {@link BetterMapConfig.ExplorationFileFormat#REGION} format, saves instead
+ * rewrite only the player's bitmaps in the regions touched since the last save
+ * (see {@link RegionFileStorage}). Loading always reads both formats.
+ * <p>
+ * Each world also has one resident union of all explored chunks, persisted as {@code union.bin}
+ * and updated as players save, for shared exploration (see {@link #getUnion(String)}).
  */
 public class ExplorationPersistence {
 
     private static final Logger LOGGER = Logger.getLogger(ExplorationPersistence.class.getName());
-    private static final int DATA_VERSION = 1;
+    private static final int COMPACT_MIN_ENTRIES = 16384;
+    private static final int SAVE_THREADS = 2;
+    private static final int LOAD_THREADS = 2;
+    private static final String UNION_FILE = "union" + ExplorationBaseFile.EXTENSION;
+    private static final String UNION_KEY_PREFIX = "union/";
+    private static final String UNION_LOAD_KEY_PREFIX = "union-load/";
+    private static final String LOAD_KEY_PREFIX = "load/";
 
     private final Path storageDir;
+    private final Map<Path, JournalState> journals = new ConcurrentHashMap<>();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor();
+    private final Map<String, ExploredChunksTracker> unions = new ConcurrentHashMap<>();
+    private final Set<String> loadedUnions = ConcurrentHashMap.newKeySet();
+    private final ExplorationSaveQueue saveQueue = new ExplorationSaveQueue(SAVE_THREADS);
+    // Deferred region and union reads, kept apart so they neither wait behind saves nor skew their metrics.
+    private final ExplorationSaveQueue loadQueue = new ExplorationSaveQueue(LOAD_THREADS, "BetterMap-Load");
+    private final AtomicLong skippedSaves = new AtomicLong();
 
     /**
      * Initializes the persistence manager, setting up the storage directory.
@@ -60,39 +104,89 @@ public class ExplorationPersistence {
             return;
 
         Path worldDir = storageDir.resolve(worldName);
-        Path file = worldDir.resolve(playerUUID + ".bin");
+        Path file = worldDir.resolve(playerUUID + ExplorationBaseFile.EXTENSION);
+        Path journal = ExplorationJournal.journalFor(file);
 
-        if (!Files.exists(file)) {
+        RegionFileStorage regions = new RegionFileStorage(worldDir);
+
+        if (!ExplorationBaseFile.exists(file) && !Files.exists(journal) && !regions.hasPlayer(playerUUID)) {
+            journals.remove(file);
             return;
         }
 
-        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
-            int version = in.readInt();
-            if (version != DATA_VERSION) {
-                LOGGER.warning("Unknown data version for player " + player.getDisplayName() + ": " + version);
-            }
-
-            int count = in.readInt();
-            Set<Long> loadedChunks = new HashSet<>(count);
+        JournalState state = journals.computeIfAbsent(file, k -> new JournalState());
+        synchronized (state) {
+            try {
+                long[] baseChunks = ExplorationBaseFile.readAll(file);
+                LongArrayList journalList = new LongArrayList();
+                state.journalEnd = ExplorationJournal.readInto(journal, journalList);
+                long[] journalChunks = journalList.toLongArray();
+                LongArrayList loadedChunks = new LongArrayList(baseChunks.length + journalChunks.length);
+                loadedChunks.addElements(0, baseChunks);
+                loadedChunks.addElements(loadedChunks.size(), journalChunks);
+                int baseCount = baseChunks.length;
+                long journalCount = journalChunks.length;
+                int[] position = BetterMapConfig.getInstance().isLazyExplorationLoading() ? chunkPosition(player) : null;
+                int[] bounds = position != null ? regions.readBounds(playerUUID) : null;
+
+                int regionCount;
+                state.pendingRegions.clear();
+                if (bounds != null) {
+                    // Only regions within map reach now; the rest are faulted in as the player moves.
+                    int reach = mapReachChunks();
+                    LongIterator it = regions.listRegions(playerUUID).iterator();
+                    regionCount = 0;
+                    while (it.hasNext()) {
+                        long regionKey = it.nextLong();
+                        if (isRegionInReach(regionKey, position[0], position[1], reach)) {
+                            regionCount += regions.readRegion(playerUUID, regionKey, loadedChunks::add);
+                        } else {
+                            state.pendingRegions.add(regionKey);
+                        }
+                    }
+                } else {
+                    regionCount = regions.readPlayer(playerUUID, loadedChunks::add);
+                }
 
-            for (int i = 0; i < count; i++) {
-                loadedChunks.add(in.readLong());
-            }
+                ExplorationTracker.PlayerExplorationData data = ExplorationTracker.getInstance().getOrCreatePlayerData(player);
+                ExploredChunksTracker chunks = data.getExploredChunks();
+                boolean hadChunks = chunks.getExploredCount() > 0;
+
+                long[] loaded = loadedChunks.toLongArray();
+                chunks.markChunksExplored(loaded);
+                if (bounds != null) {
+                    data.getMapExpansion().includeChunks(baseChunks);
+                    data.getMapExpansion().includeChunks(journalChunks);
+                    data.getMapExpansion().includeBounds(bounds[0], bounds[1], bounds[2], bounds[3]);
+                } else {
+                    data.getMapExpansion().includeChunks(loaded);
+                    if (position != null && regionCount > 0) {
+                        // Older region data has no stored bounds yet; store them so the next join can be lazy.
+                        int[] regionBounds = boundsOf(regions, playerUUID);
+                        if (regionBounds != null) {
+                            regions.writeBounds(playerUUID, regionBounds);
+                        }
+                    }
+                }
 
-            ExplorationTracker.PlayerExplorationData data = ExplorationTracker.getInstance().getOrCreatePlayerData(player);
-            data.getExploredChunks().markChunksExplored(loadedChunks);
+                // Chunks already in memory may be missing from disk, so the next save has to write everything.
+                ExploredChunkDeltaLog log = chunks.getNewlyExplored();
+                if (hadChunks) {
+                    unfollow(state);
+                } else {
+                    follow(state, log, log.register());
+                }
+                state.baseCount = baseCount;
+                state.journalEntries = journalCount;
+                state.pendingCount = state.pendingRegions.size();
 
-            for (long chunkIdx : loadedChunks) {
-                int x = ChunkUtil.indexToChunkX(chunkIdx);
-                int z = ChunkUtil.indexToChunkZ(chunkIdx);
+                LOGGER.info("Loaded " + chunks.getExploredCount() + " explored chunks (" + journalCount + " from journal, "
+                        + regionCount + " from region files, " + state.pendingRegions.size() + " regions deferred) for "
+                        + player.getDisplayName() + " in world " + worldName);
 
-                data.getMapExpansion().updateBoundaries(x, z, 0);
+            } catch (IOException e) {
+                LOGGER.severe("Failed to load exploration data for " + player.getDisplayName() + ": " + e.getMessage());
             }
-
-            LOGGER.info("Loaded " + count + " explored chunks for " + player.getDisplayName() + " in world " + worldName);
-
-        } catch (IOException e) {
-            LOGGER.severe("Failed to load exploration data for " + player.getDisplayName() + ": " + e.getMessage());
         }
     }
 
@@ -113,6 +207,7 @@ public class ExplorationPersistence {
 
     /**
      * Saves exploration data for all players in the server.
+     * Players with nothing explored since their last save are skipped without touching disk.
      */
     public void saveAllPlayers() {
         Universe universe = Universe.get();
@@ -122,8 +217,8 @@ public class ExplorationPersistence {
             try {
                 world.execute(() -> {
                     LOGGER.info("Saving exploration data for world: " + world.getName());
+                    int[] skipped = {0};
                     world.getPlayerRefs().forEach(playerRef -> {
-                        LOGGER.info(" - Saving player: " + playerRef);
                         Player player = playerRef.getComponent(Player.getComponentType());
                         if (player != null) {
                             String playerName = player.getDisplayName();
@@ -132,14 +227,21 @@ public class ExplorationPersistence {
 
                             ExplorationTracker.PlayerExplorationData data = ExplorationTracker.getInstance().getPlayerData(playerName);
                             if (data != null && uuid != null) {
-                                Set<Long> chunks = data.getExploredChunks().getExploredChunks();
-                                java.util.concurrent.ForkJoinPool.commonPool().execute(() -> 
-                                    save(playerName, uuid, worldName, chunks)
-                                );
-                                LOGGER.info("Saved exploration data for player: " + playerName);
+                                ExploredChunksTracker chunks = data.getExploredChunks();
+                                if (!isDirty(uuid, worldName, chunks)) {
+                                    skipped[0]++;
+                                    skippedSaves.incrementAndGet();
+                                    return;
+                                }
+                                saveQueue.submit(uuid + "/" + worldName,
+                                        () -> write(playerName, uuid, worldName, chunks) != SaveResult.FAILED);
+                                LOGGER.info("Queued exploration save for player: " + playerName);
                             }
                         }
                     });
+                    if (skipped[0] > 0) {
+                        LOGGER.info("Skipped " + skipped[0] + " unchanged players in world: " + world.getName());
+                    }
                 });
             } catch (Exception _) {}
         });
@@ -163,10 +265,185 @@ public class ExplorationPersistence {
             return;
         }
 
-        save(playerName, playerUUID, worldName, data.getExploredChunks().getExploredChunks());
+        save(playerName, playerUUID, worldName, data.getExploredChunks());
+    }
+
+    /**
+     * Loads the deferred regions of a lazily loaded player that came within map reach.
+     * The read runs on the load queue; repeated calls for the same player coalesce so only
+     * the latest position is used.
+     *
+     * @param playerName The name of the player.
+     * @param playerUUID The UUID of the player.
+     * @param worldName  The name of the world.
+     * @param chunks     The player's explored chunks.
+     * @param chunkX     The player's chunk X.
+     * @param chunkZ     The player's chunk Z.
+     */
+    public void loadRegionsNear(String playerName, @Nonnull UUID playerUUID, @Nonnull String worldName,
+                                @Nonnull ExploredChunksTracker chunks, int chunkX, int chunkZ) {
+        Path file = storageDir.resolve(worldName).resolve(playerUUID.toString() + ExplorationBaseFile.EXTENSION);
+        JournalState state = journals.get(file);
+        if (state == null || state.pendingCount == 0) {
+            return;
+        }
+
+        loadQueue.submit(LOAD_KEY_PREFIX + playerUUID + "/" + worldName, () -> {
+            RegionFileStorage regions = new RegionFileStorage(file.getParent());
+            int reach = mapReachChunks();
+            LongArrayList wanted = new LongArrayList();
+            synchronized (state) {
+                LongIterator it = state.pendingRegions.iterator();
+                while (it.hasNext()) {
+                    long regionKey = it.nextLong();
+                    if (isRegionInReach(regionKey, chunkX, chunkZ, reach)) {
+                        wanted.add(regionKey);
+                    }
+                }
+            }
+            if (wanted.isEmpty()) {
+                return true;
+            }
+
+            // Read without the state lock so saves for this player do not wait on the disk. A save
+            // in between only adds to a deferred region on disk, and those chunks are in memory already.
+            Long2ObjectOpenHashMap<long[]> read = new Long2ObjectOpenHashMap<>();
+            boolean failed = false;
+            for (int i = 0; i < wanted.size(); i++) {
+                long regionKey = wanted.getLong(i);
+                try {
+                    long[] words = regions.readRegion(playerUUID, regionKey);
+                    read.put(regionKey, words != null ? words : new long[0]);
+                } catch (IOException e) {
+                    LOGGER.warning("Failed to load exploration region for " + playerName + ": " + e.getMessage());
+                    failed = true;
+                }
+            }
+
+            synchronized (state) {
+                read.keySet().removeIf(regionKey -> !state.pendingRegions.remove(regionKey));
+                state.pendingCount = state.pendingRegions.size();
+                if (!read.isEmpty()) {
+                    // Marked under the state lock so a save never sees the region as loaded but missing.
+                    LongArrayList loaded = new LongArrayList();
+                    RegionFileStorage.expandRegions(read, loaded::add);
+                    chunks.markChunksExplored(loaded.toLongArray());
+                    LOGGER.fine("Loaded " + read.size() + " deferred exploration regions for " + playerName);
+                }
+            }
+            return !failed;
+        });
+    }
+
+    /**
+     * Checks if a player's chunks changed since they were last saved or loaded.
+     *
+     * @param playerUUID The UUID of the player.
+     * @param worldName  The name of the world.
+     * @param chunks     The player's explored chunks.
+     * @return True if a save would write something.
+     */
+    public boolean isDirty(@Nonnull UUID playerUUID, @Nonnull String worldName, @Nonnull ExploredChunksTracker chunks) {
+        JournalState state = journals.get(storageDir.resolve(worldName).resolve(playerUUID.toString() + ExplorationBaseFile.EXTENSION));
+        if (state == null) {
+            return true;
+        }
+        synchronized (state) {
+            return state.log == null || state.log.get() != chunks.getNewlyExplored()
+                    || state.cursor.getPosition() != chunks.getGeneration();
+        }
+    }
+
+    /**
+     * Gets how many saves were skipped because the player had nothing new to write.
+     *
+     * @return The number of skipped saves since startup.
+     */
+    public long getSkippedSaveCount() {
+        return skippedSaves.get();
+    }
+
+    /**
+     * Saves a player's explored chunks, appending only what was explored since the last save.
+     * Falls back to rewriting the base file when the journal cannot follow the player's
+     * delta log (first save, data reloaded, or the log overflowed). Nothing is written when
+     * the player's generation matches the one last persisted.
+     *
+     * @param playerName The name of the player.
+     * @param playerUUID The UUID of the player.
+     * @param worldName  The name of the world.
+     * @param chunks     The player's explored chunks.
+     * @return False if the save was skipped because nothing changed, or the write failed.
+     */
+    public boolean save(String playerName, UUID playerUUID, @Nonnull String worldName, @Nonnull ExploredChunksTracker chunks) {
+        return write(playerName, playerUUID, worldName, chunks) == SaveResult.WRITTEN;
+    }
+
+    /**
+     * Runs {@link #save(String, UUID, String, ExploredChunksTracker)}, telling a skipped save apart from a failed one.
+     */
+    private SaveResult write(String playerName, UUID playerUUID, String worldName, ExploredChunksTracker chunks) {
+        Path file = storageDir.resolve(worldName).resolve(playerUUID.toString() + ExplorationBaseFile.EXTENSION);
+        JournalState state = journals.computeIfAbsent(file, k -> new JournalState());
+        ExploredChunkDeltaLog log = chunks.getNewlyExplored();
+
+        boolean regionFormat = BetterMapConfig.getInstance().getExplorationFileFormat() == BetterMapConfig.ExplorationFileFormat.REGION;
+
+        synchronized (state) {
+            if (state.log != null && state.log.get() == log) {
+                if (state.cursor.getPosition() == chunks.getGeneration()) {
+                    skippedSaves.incrementAndGet();
+                    LOGGER.fine("Skipped saving unchanged exploration data for " + playerName);
+                    return SaveResult.SKIPPED;
+                }
+
+                LongArrayList delta = new LongArrayList();
+                long next = log.drain(state.cursor.getPosition(), delta::add);
+                if (next != ExploredChunkDeltaLog.OVERFLOW) {
+                    boolean written = regionFormat
+                            ? writeDirtyRegions(playerName, playerUUID, file, chunks, delta, state)
+                            : appendJournal(playerName, file, state, delta);
+                    if (written) {
+                        log.advance(state.cursor, next);
+                        if (!delta.isEmpty()) {
+                            mergeIntoUnion(worldName, delta.toLongArray());
+                        }
+                        return SaveResult.WRITTEN;
+                    }
+                }
+            }
+
+            // Register before the snapshot: anything appended after it goes to the journal next time.
+            ExploredChunkDeltaLog.Cursor cursor = log.register();
+            ExploredChunkView snapshot = chunks.snapshot();
+            boolean saved = regionFormat
+                    ? saveRegions(playerName, playerUUID, file, snapshot, state)
+                    : save(playerName, playerUUID, worldName, snapshot);
+            if (saved) {
+                follow(state, log, cursor);
+                state.baseCount = snapshot.count();
+                state.journalEntries = 0;
+                state.journalEnd = 0;
+                mergeIntoUnion(worldName, snapshot.toLongArray());
+            } else {
+                log.release(cursor);
+                state.journalEnd = -1;
+            }
+            return saved ? SaveResult.WRITTEN : SaveResult.FAILED;
+        }
     }
 
-    public void save(String playerName, UUID playerUUID, @Nonnull String worldName, Set<Long> chunks) {
+    /**
+     * Writes a full snapshot of explored chunks to the player's base file for the given world
+     * and discards the journal.
+     *
+     * @param playerName The name of the player.
+     * @param playerUUID The UUID of the player.
+     * @param worldName  The name of the world.
+     * @param chunks     The explored chunks to write.
+     * @return True if the snapshot was written.
+     */
+    public boolean save(String playerName, UUID playerUUID, @Nonnull String worldName, @Nonnull ExploredChunkView chunks) {
         Path worldDir = storageDir.resolve(worldName);
         try {
             if (!Files.exists(worldDir)) {
@@ -174,56 +451,420 @@ public class ExplorationPersistence {
             }
         } catch (IOException e) {
             LOGGER.severe("Failed to create world exploration directory: " + e.getMessage());
-            return;
+            return false;
+        }
+
+        Path file = worldDir.resolve(playerUUID.toString() + ExplorationBaseFile.EXTENSION);
+        LOGGER.info("[DEBUG] Saving " + chunks.count() + " chunks for " + playerName + " in world " + worldName);
+
+        try {
+            ExplorationBaseFile.write(file, chunks);
+            Files.deleteIfExists(ExplorationJournal.journalFor(file));
+            return true;
+        } catch (IOException e) {
+            LOGGER.severe("Failed to save exploration data for " + playerName + ": " + e.getMessage());
         }
+        return false;
+    }
 
-        Path file = worldDir.resolve(playerUUID.toString() + ".bin");
-        LOGGER.info("[DEBUG] Saving " + chunks.size() + " chunks for " + playerName + " in world " + worldName);
+    /**
+     * Gets the queue running background saves.
+     *
+     * @return The save queue, for metrics.
+     */
+    @Nonnull
+    public ExplorationSaveQueue getSaveQueue() {
+        return saveQueue;
+    }
 
-        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
-            out.writeInt(DATA_VERSION);
-            out.writeInt(chunks.size());
+    /**
+     * Gets the queue running deferred region and union reads.
+     *
+     * @return The load queue, for metrics.
+     */
+    @Nonnull
+    public ExplorationSaveQueue getLoadQueue() {
+        return loadQueue;
+    }
 
-            for (Long chunk : chunks) {
-                out.writeLong(chunk);
+    /**
+     * Flushes queued saves and stops the background compactor, waiting briefly for both.
+     */
+    public void shutdown() {
+        // Loads still queued would only feed players who are leaving.
+        loadQueue.flushAndAwait(1, TimeUnit.SECONDS);
+        if (saveQueue.flushAndAwait(10, TimeUnit.SECONDS)) {
+            LOGGER.info("Flushed exploration saves: " + saveQueue.describe());
+        }
+        compactor.shutdown();
+        try {
+            if (!compactor.awaitTermination(10, TimeUnit.SECONDS)) {
+                LOGGER.warning("Exploration journal compaction did not finish before shutdown");
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean writeDirtyRegions(String playerName, UUID playerUUID, Path file, ExploredChunksTracker chunks,
+                                      LongArrayList delta, JournalState state) {
+        if (delta.isEmpty()) {
+            return true;
+        }
+
+        LongOpenHashSet dirty = new LongOpenHashSet();
+        for (int i = 0; i < delta.size(); i++) {
+            long chunk = delta.getLong(i);
+            dirty.add(RegionBitmapChunkStore.regionKey(ChunkUtil.indexToChunkX(chunk), ChunkUtil.indexToChunkZ(chunk)));
+        }
+
+        try {
+            RegionFileStorage storage = new RegionFileStorage(file.getParent());
+            storage.writeRegions(playerUUID, mergePendingRegions(storage, playerUUID, state,
+                    RegionFileStorage.collectRegions(chunks.snapshot(), dirty)));
+            LOGGER.fine("Wrote " + dirty.size() + " region bitmaps for " + playerName);
+            return true;
         } catch (IOException e) {
-            LOGGER.severe("Failed to save exploration data for " + playerName + ": " + e.getMessage());
+            LOGGER.warning("Failed to write exploration regions for " + playerName + ": " + e.getMessage());
+            unfollow(state);
+            return false;
         }
     }
 
     /**
-     * Loads chunks from all player files in the specified world folder.
+     * Writes every region of a snapshot, then drops the player's flat files, which the regions now cover.
+     */
+    private boolean saveRegions(String playerName, UUID playerUUID, Path file, ExploredChunkView chunks, JournalState state) {
+        LOGGER.fine("Saving " + chunks.count() + " chunks for " + playerName + " to region files");
+        try {
+            RegionFileStorage storage = new RegionFileStorage(file.getParent());
+            storage.writeRegions(playerUUID, mergePendingRegions(storage, playerUUID, state,
+                    RegionFileStorage.collectRegions(chunks, null)));
+            ExplorationBaseFile.delete(file);
+            Files.deleteIfExists(ExplorationJournal.journalFor(file));
+            return true;
+        } catch (IOException e) {
+            LOGGER.severe("Failed to save exploration regions for " + playerName + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Folds the on-disk bitmaps of deferred regions into regions about to be written, so a
+     * save never replaces chunks that were not loaded yet.
+     */
+    private static Long2ObjectOpenHashMap<long[]> mergePendingRegions(RegionFileStorage storage, UUID playerUUID, JournalState state,
+                                                                     Long2ObjectOpenHashMap<long[]> regions) throws IOException {
+        if (state.pendingRegions.isEmpty()) {
+            return regions;
+        }
+        for (Long2ObjectOpenHashMap.Entry<long[]> entry : regions.long2ObjectEntrySet()) {
+            if (!state.pendingRegions.contains(entry.getLongKey())) {
+                continue;
+            }
+            long[] stored = storage.readRegion(playerUUID, entry.getLongKey());
+            if (stored != null) {
+                long[] words = entry.getValue();
+                for (int i = 0; i < words.length; i++) {
+                    words[i] |= stored[i];
+                }
+            }
+        }
+        return regions;
+    }
+
+    /**
+     * Gets how far from the player, in world chunks, the map can show explored chunks.
+     */
+    private static int mapReachChunks() {
+        int maxMapChunks = BetterMapConfig.getInstance().getActiveMapQuality().maxChunks;
+        return ((int) Math.ceil(Math.sqrt(maxMapChunks / Math.PI)) + 1) * 2;
+    }
+
+    private static boolean isRegionInReach(long regionKey, int chunkX, int chunkZ, int reach) {
+        int minX = ChunkUtil.indexToChunkX(regionKey) << RegionBitmapChunkStore.REGION_SHIFT;
+        int minZ = ChunkUtil.indexToChunkZ(regionKey) << RegionBitmapChunkStore.REGION_SHIFT;
+        int maxX = minX + RegionBitmapChunkStore.REGION_SIZE - 1;
+        int maxZ = minZ + RegionBitmapChunkStore.REGION_SIZE - 1;
+        long dx = Math.max(0, Math.max(minX - chunkX, chunkX - maxX));
+        long dz = Math.max(0, Math.max(minZ - chunkZ, chunkZ - maxZ));
+        return dx * dx + dz * dz <= (long) reach * reach;
+    }
+
+    @Nullable
+    private static int[] boundsOf(RegionFileStorage regions, UUID playerUUID) throws IOException {
+        int[] bounds = {Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE};
+        regions.readPlayer(playerUUID, chunk -> {
+            int x = ChunkUtil.indexToChunkX(chunk);
+            int z = ChunkUtil.indexToChunkZ(chunk);
+            bounds[0] = Math.min(bounds[0], x);
+            bounds[1] = Math.max(bounds[1], x);
+            bounds[2] = Math.min(bounds[2], z);
+            bounds[3] = Math.max(bounds[3], z);
+        });
+        return bounds[0] == Integer.MAX_VALUE ? null : bounds;
+    }
+
+    /**
+     * Gets the chunk a player stands in.
+     *
+     * @return {@code {chunkX, chunkZ}}, or null if the position is unknown.
+     */
+    @Nullable
+    private static int[] chunkPosition(Player player) {
+        Ref<EntityStore> ref = player.getReference();
+        if (ref == null || !ref.isValid()) {
+            return null;
+        }
+        TransformComponent transform = ref.getStore().getComponent(ref, TransformComponent.getComponentType());
+        if (transform == null || transform.getPosition() == null) {
+            return null;
+        }
+        return new int[]{ChunkUtil.blockToChunkCoord(transform.getPosition().x), ChunkUtil.blockToChunkCoord(transform.getPosition().z)};
+    }
+
+    private boolean appendJournal(String playerName, Path file, JournalState state, LongArrayList delta) {
+        if (delta.isEmpty()) {
+            return true;
+        }
+
+        try {
+            Path worldDir = file.getParent();
+            if (!Files.exists(worldDir)) {
+                Files.createDirectories(worldDir);
+            }
+            state.journalEnd = ExplorationJournal.append(ExplorationJournal.journalFor(file), delta, state.journalEnd);
+        } catch (IOException e) {
+            // A partial record would hide later ones, so fall back to a full rewrite.
+            LOGGER.warning("Failed to append exploration journal for " + playerName + ": " + e.getMessage());
+            state.journalEnd = -1;
+            unfollow(state);
+            return false;
+        }
+
+        state.journalEntries += delta.size();
+        LOGGER.fine("Journaled " + delta.size() + " new chunks for " + playerName);
+
+        if (!state.compactionQueued && state.journalEntries > Math.max(COMPACT_MIN_ENTRIES, state.baseCount / 2)) {
+            state.compactionQueued = true;
+            try {
+                compactor.execute(() -> compact(file, state));
+            } catch (java.util.concurrent.RejectedExecutionException e) {
+                state.compactionQueued = false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Folds a journal into its base file. Works from disk only, so it also runs after the player left.
+     */
+    private void compact(Path file, JournalState state) {
+        synchronized (state) {
+            state.compactionQueued = false;
+            Path journal = ExplorationJournal.journalFor(file);
+            try {
+                ExploredChunkStore merged = ExploredChunkStore.create();
+                ExplorationBaseFile.read(file, merged::mark);
+                long replayed = ExplorationJournal.read(journal, merged::mark);
+
+                ExplorationBaseFile.write(file, merged);
+                Files.deleteIfExists(journal);
+                state.baseCount = merged.count();
+                state.journalEntries = 0;
+                state.journalEnd = 0;
+
+                LOGGER.fine("Compacted " + replayed + " journal entries into " + file.getFileName());
+            } catch (IOException e) {
+                LOGGER.warning("Failed to compact exploration journal " + journal.getFileName() + ": " + e.getMessage());
+                state.journalEnd = -1;
+            }
+        }
+    }
+
+    /**
+     * Gets the resident union of every player's explored chunks in a world.
+     * <p>
+     * There is one union per world. It is kept on disk as {@code union.bin} and updated as
+     * players save; shared exploration also marks players' unsaved chunks into it, so the
+     * file may run slightly ahead of the player files. The first call per world returns an
+     * empty union at once and fills it on the save queue, from the union file or, when it
+     * is missing or older than any player file, from all player files.
      *
      * @param worldName The name of the world.
-     * @return A set of all explored chunk indices.
+     * @return The world's union. Callers other than the shared-exploration view must not mark chunks through it.
      */
-    public Set<Long> loadAllChunks(@Nonnull String worldName) {
-        Set<Long> allChunks = new HashSet<>();
+    @Nonnull
+    public ExploredChunksTracker getUnion(@Nonnull String worldName) {
+        return unions.computeIfAbsent(worldName, name -> {
+            ExploredChunksTracker union = new ExploredChunksTracker(null);
+            loadQueue.submit(UNION_LOAD_KEY_PREFIX + name, () -> loadUnion(name, union));
+            return union;
+        });
+    }
+
+    private boolean loadUnion(String worldName, ExploredChunksTracker union) {
         Path worldDir = storageDir.resolve(worldName);
+        Path unionFile = worldDir.resolve(UNION_FILE);
 
-        if (!Files.exists(worldDir)) {
-            return allChunks;
+        long[] chunks = null;
+        if (isUnionCurrent(worldDir, unionFile)) {
+            try {
+                chunks = ExplorationBaseFile.readAll(unionFile);
+                LOGGER.info("Loaded exploration union of " + chunks.length + " chunks for world " + worldName);
+            } catch (IOException e) {
+                LOGGER.warning("Failed to read exploration union for world " + worldName + ": " + e.getMessage());
+            }
         }
 
-        try (java.util.stream.Stream<Path> stream = Files.list(worldDir)) {
-            stream.filter(path -> path.toString().endsWith(".bin")).forEach(file -> {
-                try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
-                    int version = in.readInt();
-                    if (version == DATA_VERSION) {
-                        int count = in.readInt();
-                        for (int i = 0; i < count; i++) {
-                            allChunks.add(in.readLong());
-                        }
-                    }
-                } catch (IOException e) {
-                    LOGGER.warning("Failed to load chunk data from " + file.getFileName() + ": " + e.getMessage());
+        boolean rebuilt = chunks == null;
+        if (rebuilt) {
+            chunks = rebuildUnion(worldDir).toLongArray();
+            LOGGER.info("Rebuilt exploration union of " + chunks.length + " chunks for world " + worldName);
+        }
+
+        int before = union.getExploredCount();
+        union.markChunksExplored(chunks);
+        loadedUnions.add(worldName);
+        // Chunks merged while loading, or a rebuilt union, are not in the union file yet.
+        if ((rebuilt && chunks.length > 0) || before > 0) {
+            saveQueue.submit(UNION_KEY_PREFIX + worldName, () -> writeUnion(worldName, union));
+        }
+        return true;
+    }
+
+    /**
+     * Adds newly saved chunks to a world's union, if it is resident, and queues a union write.
+     */
+    private void mergeIntoUnion(String worldName, long[] chunks) {
+        ExploredChunksTracker union = unions.get(worldName);
+        // Unions that are not resident are rebuilt from the newer player files on first use.
+        if (union == null) {
+            return;
+        }
+        long generation = union.getGeneration();
+        union.markChunksExplored(chunks);
+        if (union.getGeneration() != generation) {
+            saveQueue.submit(UNION_KEY_PREFIX + worldName, () -> writeUnion(worldName, union));
+        }
+    }
+
+    private boolean writeUnion(String worldName, ExploredChunksTracker union) {
+        if (!loadedUnions.contains(worldName)) {
+            // Writing a half-loaded union would make it look current and hide the rest.
+            return true;
+        }
+        Path worldDir = storageDir.resolve(worldName);
+        try {
+            Files.createDirectories(worldDir);
+            ExplorationBaseFile.write(worldDir.resolve(UNION_FILE), union.snapshot());
+            return true;
+        } catch (IOException e) {
+            LOGGER.warning("Failed to write exploration union for world " + worldName + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Checks that the union file exists and is at least as new as every player file.
+     */
+    private static boolean isUnionCurrent(Path worldDir, Path unionFile) {
+        if (!Files.exists(unionFile)) {
+            return false;
+        }
+        try {
+            long unionTime = Files.getLastModifiedTime(unionFile).toMillis();
+            return newestPlayerFile(worldDir) <= unionTime
+                    && newestPlayerFile(worldDir.resolve(RegionFileStorage.DIRECTORY)) <= unionTime;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static long newestPlayerFile(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return 0;
+        }
+        long newest = 0;
+        try (java.util.stream.Stream<Path> stream = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) stream::iterator) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(UNION_FILE) || !Files.isRegularFile(file)) {
+                    continue;
                 }
-            });
+                newest = Math.max(newest, Files.getLastModifiedTime(file).toMillis());
+            }
+        }
+        return newest;
+    }
+
+    /**
+     * Loads chunks from all player files in the specified world folder.
+     */
+    private static ExploredChunkStore rebuildUnion(Path worldDir) {
+        if (!Files.exists(worldDir)) {
+            return ExploredChunkStore.create();
+        }
+
+        ExploredChunkStore allChunks = ExplorationBulkLoader.loadWorld(worldDir, file -> {
+            String name = file.getFileName().toString();
+            return !name.equals(UNION_FILE)
+                    && (name.endsWith(ExplorationBaseFile.EXTENSION) || name.endsWith(ExplorationJournal.EXTENSION));
+        });
+
+        try {
+            new RegionFileStorage(worldDir).readUnion(allChunks::mark);
         } catch (IOException e) {
-            LOGGER.severe("Failed to list files in " + worldDir + ": " + e.getMessage());
+            LOGGER.warning("Failed to read exploration region files in " + worldDir + ": " + e.getMessage());
         }
 
         return allChunks;
     }
+
+    /**
+     * Points a journal state at a delta log, releasing the cursor it followed before.
+     */
+    private static void follow(JournalState state, ExploredChunkDeltaLog log, ExploredChunkDeltaLog.Cursor cursor) {
+        unfollow(state);
+        state.log = new WeakReference<>(log);
+        state.cursor = cursor;
+    }
+
+    /**
+     * Stops a journal state from following its delta log, so the next save rewrites everything.
+     */
+    private static void unfollow(JournalState state) {
+        ExploredChunkDeltaLog previous = state.log != null ? state.log.get() : null;
+        if (previous != null && state.cursor != null) {
+            previous.release(state.cursor);
+        }
+        state.log = null;
+        state.cursor = null;
+    }
+
+    /**
+     * Outcome of a save, so the save queue can count failures without counting skipped saves.
+     */
+    private enum SaveResult {
+        WRITTEN,
+        SKIPPED,
+        FAILED
+    }
+
+    /**
+     * Tracks how far a player's journal has followed their delta log.
+     * The log is weakly held so states of departed players do not pin their trackers;
+     * the cursor keeps the log from dropping entries the journal has not written yet.
+     */
+    private static final class JournalState {
+        private WeakReference<ExploredChunkDeltaLog> log;
+        private ExploredChunkDeltaLog.Cursor cursor;
+        private int baseCount;
+        private long journalEntries;
+        // Byte offset past the journal's last valid record, or -1 to find it on the next append.
+        private long journalEnd = -1;
+        private boolean compactionQueued;
+        private final LongOpenHashSet pendingRegions = new LongOpenHashSet();
+        private volatile int pendingCount;
+    }
 }
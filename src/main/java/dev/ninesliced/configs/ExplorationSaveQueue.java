@@ -0,0 +1,231 @@
+package dev.ninesliced.configs;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Logger;
+
+/**
+ * Write-behind queue for exploration saves, running on its own small thread pool so disk
+ * stalls never occupy shared pools.
+ * <p>
+ * Requests are coalesced per key: while a save for a key is pending, a newer request
+ * replaces it, and saves for one key never run concurrently. The queue therefore holds
+ * at most one entry per key, which bounds its size by the number of players.
+ * <p>
+ * Tasks report whether they succeeded; a task returning false or throwing counts as failed.
+ */
+public class ExplorationSaveQueue {
+
+    private static final Logger LOGGER = Logger.getLogger(ExplorationSaveQueue.class.getName());
+
+    private final ExecutorService executor;
+    private final Map<String, BooleanSupplier> pending = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> scheduled = new ConcurrentHashMap<>();
+    private final Object idleLock = new Object();
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder totalWriteNanos = new LongAdder();
+    private final AtomicLong maxWriteNanos = new AtomicLong();
+
+    /**
+     * Creates a queue.
+     *
+     * @param threads The maximum number of saves running at once.
+     */
+    public ExplorationSaveQueue(int threads) {
+        this(threads, "BetterMap-Save");
+    }
+
+    /**
+     * Creates a queue with named worker threads.
+     *
+     * @param threads    The maximum number of tasks running at once.
+     * @param threadName The worker thread name prefix.
+     */
+    public ExplorationSaveQueue(int threads, @Nonnull String threadName) {
+        AtomicInteger threadId = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, threadName + "-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues a save, replacing any save still pending for the same key.
+     *
+     * @param key  The coalescing key, e.g. player UUID and world.
+     * @param task The save to run, returning false if it failed.
+     */
+    public void submit(@Nonnull String key, @Nonnull BooleanSupplier task) {
+        submitted.increment();
+        if (pending.put(key, task) != null) {
+            coalesced.increment();
+        }
+        schedule(key);
+    }
+
+    /**
+     * Waits until every queued save has run, then stops the worker threads.
+     *
+     * @param timeout The maximum time to wait.
+     * @param unit    The unit of the timeout.
+     * @return True if the queue drained in time.
+     */
+    public boolean flushAndAwait(long timeout, @Nonnull TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        boolean drained = true;
+
+        synchronized (idleLock) {
+            try {
+                while (!scheduled.isEmpty()) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        drained = false;
+                        break;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(idleLock, remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                drained = false;
+            }
+        }
+
+        executor.shutdown();
+        if (!drained) {
+            LOGGER.warning("Exploration saves still pending at shutdown: " + pending.size());
+        }
+        return drained;
+    }
+
+    /**
+     * Gets the number of keys with a save waiting to run.
+     *
+     * @return The queue depth.
+     */
+    public int getQueueDepth() {
+        return pending.size();
+    }
+
+    /**
+     * Gets the number of submitted saves that were replaced by a newer one before running.
+     *
+     * @return The coalesced count.
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Gets the number of saves that ran, including failed ones.
+     *
+     * @return The completed count.
+     */
+    public long getCompletedCount() {
+        return completed.sum();
+    }
+
+    /**
+     * Gets the number of saves that reported failure or threw.
+     *
+     * @return The failed count.
+     */
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    /**
+     * Gets the average time a save took to run.
+     *
+     * @return The average write latency in milliseconds, or 0 if nothing ran yet.
+     */
+    public double getAverageWriteMillis() {
+        long count = completed.sum();
+        return count == 0 ? 0 : totalWriteNanos.sum() / (double) count / 1_000_000.0;
+    }
+
+    /**
+     * Gets the longest time a save took to run.
+     *
+     * @return The maximum write latency in milliseconds.
+     */
+    public double getMaxWriteMillis() {
+        return maxWriteNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * Formats the queue metrics for logs and commands.
+     *
+     * @return A one-line summary.
+     */
+    @Nonnull
+    public String describe() {
+        return String.format("depth=%d submitted=%d coalesced=%d completed=%d failed=%d avg=%.2fms max=%.2fms",
+                getQueueDepth(), submitted.sum(), getCoalescedCount(), getCompletedCount(), getFailedCount(),
+                getAverageWriteMillis(), getMaxWriteMillis());
+    }
+
+    private void schedule(String key) {
+        if (scheduled.putIfAbsent(key, Boolean.TRUE) != null) {
+            // A drain for this key is queued or running and will pick the new task up.
+            return;
+        }
+        try {
+            executor.execute(() -> drain(key));
+        } catch (RejectedExecutionException e) {
+            // Shut down: run inline so the save is not lost.
+            drain(key);
+        }
+    }
+
+    private void drain(String key) {
+        while (true) {
+            BooleanSupplier task = pending.remove(key);
+            if (task == null) {
+                scheduled.remove(key);
+                // A submit may have slipped in between the remove and the unschedule.
+                if (!pending.containsKey(key) || scheduled.putIfAbsent(key, Boolean.TRUE) != null) {
+                    break;
+                }
+                continue;
+            }
+            run(task);
+        }
+
+        if (scheduled.isEmpty()) {
+            synchronized (idleLock) {
+                idleLock.notifyAll();
+            }
+        }
+    }
+
+    private void run(BooleanSupplier task) {
+        long start = System.nanoTime();
+        try {
+            if (!task.getAsBoolean()) {
+                failed.increment();
+            }
+        } catch (RuntimeException e) {
+            failed.increment();
+            LOGGER.warning("Exploration save failed: " + e.getMessage());
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            completed.increment();
+            totalWriteNanos.add(elapsed);
+            maxWriteNanos.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+}
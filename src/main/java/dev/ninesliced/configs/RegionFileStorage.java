@@ -0,0 +1,571 @@
+package dev.ninesliced.configs;
+
+import dev.ninesliced.exploration.ExploredChunkView;
+import dev.ninesliced.exploration.RegionBitmapChunkStore;
+import dev.ninesliced.utils.ChunkUtil;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+
+/**
+ * Region-file backend for explored chunks: one file per world region of
+ * {@link RegionBitmapChunkStore#REGION_SIZE} x {@link RegionBitmapChunkStore#REGION_SIZE}
+ * chunks, holding a 128-byte bitmap for every player who explored that region.
+ * <p>
+ * Region file layout ({@code regions/r.<x>.<z>.bmr}, big-endian): int magic, int version,
+ * int slot count, then one slot per player made of the player UUID (two longs) followed by
+ * {@link RegionBitmapChunkStore#WORDS_PER_REGION} bitmap words. Bit
+ * {@code ((z & 31) << 5) | (x & 31)} is set when the chunk is explored.
+ * <p>
+ * Each player also has a list of the regions they have a slot in ({@code regions/<uuid>.idx}),
+ * so loading a player does not list the whole directory, and may store the bounding box of
+ * everything they explored ({@code regions/<uuid>.bounds}).
+ * <p>
+ * Saving a player who already has a slot in a region overwrites just that slot's bitmap in
+ * place and syncs it; the other players' slots are left alone. Creating a region file, adding
+ * a slot to one, or changing a region list builds the new contents, syncs them to a temporary
+ * file and renames it over the old one, so a crash leaves either the old or the new file.
+ * The region list and bounds are only rewritten when they change. A region written before a
+ * crash but missing from the list is added back on the next write. Files are read whole with
+ * one channel read into the calling thread's reused buffer (see {@link ExplorationBulkLoader}).
+ */
+public class RegionFileStorage {
+    /**
+     * Name of the directory holding region files inside a world directory.
+     */
+    public static final String DIRECTORY = "regions";
+
+    /**
+     * Size of one player's slot in a region file: the UUID and the bitmap.
+     */
+    public static final int SLOT_BYTES = 16 + RegionBitmapChunkStore.WORDS_PER_REGION * 8;
+
+    private static final int MAGIC = 0x424D5247;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 12;
+    private static final int WORDS = RegionBitmapChunkStore.WORDS_PER_REGION;
+    private static final String REGION_EXTENSION = ".bmr";
+    private static final String INDEX_EXTENSION = ".idx";
+    private static final String BOUNDS_EXTENSION = ".bounds";
+    private static final int SHIFT = RegionBitmapChunkStore.REGION_SHIFT;
+    private static final int LOCAL_MASK = RegionBitmapChunkStore.REGION_SIZE - 1;
+
+    private static final Map<Path, Object> FILE_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path directory;
+
+    /**
+     * Creates a storage rooted in a world directory.
+     *
+     * @param worldDir The world's exploration directory.
+     */
+    public RegionFileStorage(@Nonnull Path worldDir) {
+        this.directory = worldDir.resolve(DIRECTORY);
+    }
+
+    /**
+     * Checks if a player has any region data.
+     *
+     * @param player The player UUID.
+     * @return True if the player's region list exists.
+     */
+    public boolean hasPlayer(@Nonnull UUID player) {
+        return Files.exists(indexFile(player));
+    }
+
+    /**
+     * Groups explored chunks into region bitmaps.
+     *
+     * @param chunks       The explored chunks.
+     * @param onlyRegions  Region keys to collect, or null for all regions.
+     * @return Bitmap words per region key.
+     */
+    @Nonnull
+    public static Long2ObjectOpenHashMap<long[]> collectRegions(@Nonnull ExploredChunkView chunks, @Nullable LongOpenHashSet onlyRegions) {
+        Long2ObjectOpenHashMap<long[]> regions = new Long2ObjectOpenHashMap<>();
+        LongConsumer collector = chunk -> {
+            int x = ChunkUtil.indexToChunkX(chunk);
+            int z = ChunkUtil.indexToChunkZ(chunk);
+            long regionKey = RegionBitmapChunkStore.regionKey(x, z);
+            long[] words = regions.get(regionKey);
+            if (words == null) {
+                words = new long[WORDS];
+                regions.put(regionKey, words);
+            }
+            int bit = ((z & LOCAL_MASK) << SHIFT) | (x & LOCAL_MASK);
+            words[bit >> 6] |= 1L << bit;
+        };
+
+        if (onlyRegions == null) {
+            chunks.forEach(collector);
+            return regions;
+        }
+
+        LongIterator it = onlyRegions.iterator();
+        while (it.hasNext()) {
+            long regionKey = it.nextLong();
+            int minX = ChunkUtil.indexToChunkX(regionKey) << SHIFT;
+            int minZ = ChunkUtil.indexToChunkZ(regionKey) << SHIFT;
+            chunks.forEachInRange(minX, minZ, minX + LOCAL_MASK, minZ + LOCAL_MASK, collector);
+        }
+        return regions;
+    }
+
+    /**
+     * Visits every chunk set in region bitmaps, reversing {@link #collectRegions}.
+     *
+     * @param regions Bitmap words per region key.
+     * @param action  The consumer receiving each chunk index.
+     * @return The number of chunks visited.
+     */
+    public static int expandRegions(@Nonnull Long2ObjectOpenHashMap<long[]> regions, @Nonnull LongConsumer action) {
+        int count = 0;
+        for (Long2ObjectOpenHashMap.Entry<long[]> entry : regions.long2ObjectEntrySet()) {
+            count += forEachInRegion(entry.getLongKey(), entry.getValue(), action);
+        }
+        return count;
+    }
+
+    /**
+     * Writes a player's bitmaps for the given regions, replacing the previous ones.
+     *
+     * @param player  The player UUID.
+     * @param regions Bitmap words per region key.
+     * @throws IOException If a region file cannot be written.
+     */
+    public void writeRegions(@Nonnull UUID player, @Nonnull Long2ObjectOpenHashMap<long[]> regions) throws IOException {
+        if (regions.isEmpty()) {
+            return;
+        }
+        Files.createDirectories(directory);
+
+        LongOpenHashSet listed = readIndex(player);
+        LongArrayList newRegions = new LongArrayList();
+        for (Long2ObjectOpenHashMap.Entry<long[]> entry : regions.long2ObjectEntrySet()) {
+            writeRegion(player, entry.getLongKey(), entry.getValue());
+            if (!listed.contains(entry.getLongKey())) {
+                newRegions.add(entry.getLongKey());
+            }
+        }
+
+        if (Files.exists(boundsFile(player))) {
+            int[] stored = readBounds(player);
+            int[] bounds = stored != null ? stored.clone() : null;
+            for (Long2ObjectOpenHashMap.Entry<long[]> entry : regions.long2ObjectEntrySet()) {
+                bounds = includeRegion(bounds, entry.getLongKey(), entry.getValue());
+            }
+            if (bounds != null && !Arrays.equals(bounds, stored)) {
+                writeBounds(player, bounds);
+            }
+        }
+
+        if (!newRegions.isEmpty()) {
+            Path index = indexFile(player);
+            synchronized (lockFor(index)) {
+                LongOpenHashSet all = readIndex(player);
+                all.addAll(newRegions);
+                ByteBuffer data = ByteBuffer.allocate(all.size() * Long.BYTES);
+                LongIterator it = all.iterator();
+                while (it.hasNext()) {
+                    data.putLong(it.nextLong());
+                }
+                replace(index, data.flip());
+            }
+        }
+    }
+
+    /**
+     * Reads every chunk a player explored.
+     *
+     * @param player The player UUID.
+     * @param action The consumer receiving each chunk index.
+     * @return The number of chunks read.
+     * @throws IOException If a file cannot be read.
+     */
+    public int readPlayer(@Nonnull UUID player, @Nonnull LongConsumer action) throws IOException {
+        int count = 0;
+        LongIterator it = readIndex(player).iterator();
+        while (it.hasNext()) {
+            long regionKey = it.nextLong();
+            long[] words = readRegion(player, regionKey);
+            if (words != null) {
+                count += forEachInRegion(regionKey, words, action);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Lists the regions a player has explored chunks in.
+     *
+     * @param player The player UUID.
+     * @return The region keys.
+     * @throws IOException If the region list cannot be read.
+     */
+    @Nonnull
+    public LongOpenHashSet listRegions(@Nonnull UUID player) throws IOException {
+        return readIndex(player);
+    }
+
+    /**
+     * Reads the chunks a player explored in one region.
+     *
+     * @param player    The player UUID.
+     * @param regionKey The region key.
+     * @param action    The consumer receiving each chunk index.
+     * @return The number of chunks read.
+     * @throws IOException If the file cannot be read.
+     */
+    public int readRegion(@Nonnull UUID player, long regionKey, @Nonnull LongConsumer action) throws IOException {
+        long[] words = readRegion(player, regionKey);
+        return words != null ? forEachInRegion(regionKey, words, action) : 0;
+    }
+
+    /**
+     * Reads the stored bounding box of a player's explored chunks.
+     *
+     * @param player The player UUID.
+     * @return {@code {minX, maxX, minZ, maxZ}} in chunk coordinates, or null if none is stored.
+     * @throws IOException If the file cannot be read.
+     */
+    @Nullable
+    public int[] readBounds(@Nonnull UUID player) throws IOException {
+        Path file = boundsFile(player);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            return new int[]{in.readInt(), in.readInt(), in.readInt(), in.readInt()};
+        } catch (NoSuchFileException | EOFException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Stores the bounding box of a player's explored chunks. Once stored, it is grown on
+     * every {@link #writeRegions} call.
+     *
+     * @param player The player UUID.
+     * @param bounds {@code {minX, maxX, minZ, maxZ}} in chunk coordinates.
+     * @throws IOException If the file cannot be written.
+     */
+    public void writeBounds(@Nonnull UUID player, @Nonnull int[] bounds) throws IOException {
+        Files.createDirectories(directory);
+        Path file = boundsFile(player);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        synchronized (lockFor(file)) {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                for (int value : bounds) {
+                    out.writeInt(value);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    /**
+     * Reads the chunks a player explored inside a chunk rectangle (inclusive), opening
+     * only the region files overlapping it.
+     *
+     * @param player    The player UUID.
+     * @param minChunkX Min chunk X.
+     * @param minChunkZ Min chunk Z.
+     * @param maxChunkX Max chunk X.
+     * @param maxChunkZ Max chunk Z.
+     * @param action    The consumer receiving each chunk index.
+     * @throws IOException If a file cannot be read.
+     */
+    public void readRange(@Nonnull UUID player, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ,
+                          @Nonnull LongConsumer action) throws IOException {
+        LongConsumer filtered = chunk -> {
+            int x = ChunkUtil.indexToChunkX(chunk);
+            int z = ChunkUtil.indexToChunkZ(chunk);
+            if (x >= minChunkX && x <= maxChunkX && z >= minChunkZ && z <= maxChunkZ) {
+                action.accept(chunk);
+            }
+        };
+
+        for (int rx = minChunkX >> SHIFT; rx <= maxChunkX >> SHIFT; rx++) {
+            for (int rz = minChunkZ >> SHIFT; rz <= maxChunkZ >> SHIFT; rz++) {
+                long regionKey = ChunkUtil.chunkCoordsToIndex(rx, rz);
+                long[] words = readRegion(player, regionKey);
+                if (words != null) {
+                    forEachInRegion(regionKey, words, filtered);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the union of every player's explored chunks.
+     *
+     * @param action The consumer receiving each chunk index; a chunk is visited once per region file.
+     * @throws IOException If the directory cannot be listed.
+     */
+    public void readUnion(@Nonnull LongConsumer action) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+
+        try (java.util.stream.Stream<Path> stream = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) stream::iterator) {
+                String name = file.getFileName().toString();
+                if (!name.endsWith(REGION_EXTENSION)) {
+                    continue;
+                }
+                long regionKey = parseRegionKey(name);
+                long[] union = new long[WORDS];
+                forEachSlot(file, (uuidMost, uuidLeast, slot) -> {
+                    for (int w = 0; w < WORDS; w++) {
+                        union[w] |= slot.getLong(w << 3);
+                    }
+                });
+                forEachInRegion(regionKey, union, action);
+            }
+        }
+    }
+
+    /**
+     * Reads a player's bitmap for one region.
+     *
+     * @param player    The player UUID.
+     * @param regionKey The region key.
+     * @return The bitmap words, or null if the player has no slot there.
+     * @throws IOException If the file cannot be read.
+     */
+    @Nullable
+    public long[] readRegion(@Nonnull UUID player, long regionKey) throws IOException {
+        long[][] found = new long[1][];
+        forEachSlot(regionFile(regionKey), (uuidMost, uuidLeast, slot) -> {
+            if (uuidMost == player.getMostSignificantBits() && uuidLeast == player.getLeastSignificantBits()) {
+                long[] words = new long[WORDS];
+                for (int w = 0; w < WORDS; w++) {
+                    words[w] = slot.getLong(w << 3);
+                }
+                found[0] = words;
+            }
+        });
+        return found[0];
+    }
+
+    /**
+     * Writes one region bitmap. An existing slot is overwritten in place with one positional
+     * write and nothing is written if it already holds the bitmap; a new file or a new slot
+     * replaces the whole file.
+     */
+    private void writeRegion(UUID player, long regionKey, long[] words) throws IOException {
+        Path file = regionFile(regionKey);
+        synchronized (lockFor(file)) {
+            ByteBuffer existing = readSlots(file);
+            int slots = existing != null ? existing.remaining() / SLOT_BYTES : 0;
+            int slot = existing != null ? findSlot(existing, slots, player) : -1;
+
+            if (slot >= 0) {
+                int offset = HEADER_BYTES + slot * SLOT_BYTES + 16;
+                if (sameWords(existing, offset, words)) {
+                    return;
+                }
+                ByteBuffer data = ByteBuffer.allocate(WORDS * 8);
+                for (long word : words) {
+                    data.putLong(word);
+                }
+                // Only the bitmap is rewritten, so a torn write cannot detach the slot from its player.
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    writeFully(channel, data.flip(), offset);
+                    channel.force(false);
+                }
+                return;
+            }
+
+            ByteBuffer data = ByteBuffer.allocate(HEADER_BYTES + (slots + 1) * SLOT_BYTES);
+            data.putInt(MAGIC).putInt(VERSION).putInt(slots + 1);
+            if (existing != null) {
+                data.put(existing);
+            }
+            data.putLong(player.getMostSignificantBits()).putLong(player.getLeastSignificantBits());
+            for (long word : words) {
+                data.putLong(word);
+            }
+            replace(file, data.flip());
+        }
+    }
+
+    private static boolean sameWords(ByteBuffer buffer, int offset, long[] words) {
+        for (int w = 0; w < words.length; w++) {
+            if (buffer.getLong(offset + (w << 3)) != words[w]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int findSlot(ByteBuffer slots, int count, UUID player) {
+        int base = slots.position();
+        for (int i = 0; i < count; i++) {
+            int offset = base + i * SLOT_BYTES;
+            if (slots.getLong(offset) == player.getMostSignificantBits() && slots.getLong(offset + 8) == player.getLeastSignificantBits()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reads a region file and checks its header.
+     *
+     * @return The calling thread's read buffer positioned at the first slot and limited to the
+     * last whole slot, or null if the file does not exist. Valid until the thread's next read.
+     */
+    @Nullable
+    private static ByteBuffer readSlots(Path file) throws IOException {
+        ByteBuffer buffer = ExplorationBulkLoader.readFully(file);
+        if (buffer == null || buffer.limit() < HEADER_BYTES) {
+            return null;
+        }
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a region file: " + file.getFileName());
+        }
+
+        int slots = Math.max(0, Math.min(buffer.getInt(8), (buffer.limit() - HEADER_BYTES) / SLOT_BYTES));
+        return buffer.limit(HEADER_BYTES + slots * SLOT_BYTES).position(HEADER_BYTES);
+    }
+
+    /**
+     * Replaces a file with new contents through a synced temporary file and an atomic rename.
+     */
+    private static void replace(Path file, ByteBuffer data) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(channel, data, 0);
+            channel.force(false);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void forEachSlot(Path file, SlotConsumer action) throws IOException {
+        ByteBuffer slots = readSlots(file);
+        if (slots == null) {
+            // No player has explored this region.
+            return;
+        }
+
+        for (int offset = slots.position(); offset < slots.limit(); offset += SLOT_BYTES) {
+            ByteBuffer slot = slots.slice(offset + 16, WORDS * 8).order(ByteOrder.BIG_ENDIAN);
+            action.accept(slots.getLong(offset), slots.getLong(offset + 8), slot);
+        }
+    }
+
+    private LongOpenHashSet readIndex(UUID player) throws IOException {
+        LongOpenHashSet regions = new LongOpenHashSet();
+        Path index = indexFile(player);
+        if (!Files.exists(index)) {
+            return regions;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(index)))) {
+            long entries = Files.size(index) / 8;
+            for (long i = 0; i < entries; i++) {
+                regions.add(in.readLong());
+            }
+        }
+        return regions;
+    }
+
+    private static int forEachInRegion(long regionKey, long[] words, LongConsumer action) {
+        int baseX = ChunkUtil.indexToChunkX(regionKey) << SHIFT;
+        int baseZ = ChunkUtil.indexToChunkZ(regionKey) << SHIFT;
+        int count = 0;
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            while (word != 0) {
+                int bit = (w << 6) | Long.numberOfTrailingZeros(word);
+                action.accept(ChunkUtil.chunkCoordsToIndex(baseX + (bit & LOCAL_MASK), baseZ + (bit >> SHIFT)));
+                word &= word - 1;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Nullable
+    private static int[] includeRegion(@Nullable int[] bounds, long regionKey, long[] words) {
+        int[] result = bounds;
+        int baseX = ChunkUtil.indexToChunkX(regionKey) << SHIFT;
+        int baseZ = ChunkUtil.indexToChunkZ(regionKey) << SHIFT;
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            while (word != 0) {
+                int bit = (w << 6) | Long.numberOfTrailingZeros(word);
+                int x = baseX + (bit & LOCAL_MASK);
+                int z = baseZ + (bit >> SHIFT);
+                if (result == null) {
+                    result = new int[]{x, x, z, z};
+                } else {
+                    result[0] = Math.min(result[0], x);
+                    result[1] = Math.max(result[1], x);
+                    result[2] = Math.min(result[2], z);
+                    result[3] = Math.max(result[3], z);
+                }
+                word &= word - 1;
+            }
+        }
+        return result;
+    }
+
+    private Path regionFile(long regionKey) {
+        return directory.resolve("r." + ChunkUtil.indexToChunkX(regionKey) + "." + ChunkUtil.indexToChunkZ(regionKey) + REGION_EXTENSION);
+    }
+
+    private Path indexFile(UUID player) {
+        return directory.resolve(player + INDEX_EXTENSION);
+    }
+
+    private Path boundsFile(UUID player) {
+        return directory.resolve(player + BOUNDS_EXTENSION);
+    }
+
+    private static long parseRegionKey(String fileName) throws IOException {
+        String[] parts = fileName.split("\\.");
+        if (parts.length != 4) {
+            throw new IOException("Invalid region file name: " + fileName);
+        }
+        try {
+            return ChunkUtil.chunkCoordsToIndex(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid region file name: " + fileName);
+        }
+    }
+
+    private static Object lockFor(Path file) {
+        return FILE_LOCKS.computeIfAbsent(file.toAbsolutePath().normalize(), k -> new Object());
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    @FunctionalInterface
+    private interface SlotConsumer {
+        void accept(long uuidMost, long uuidLeast, ByteBuffer words);
+    }
+}
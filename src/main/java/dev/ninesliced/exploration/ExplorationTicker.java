@@ -8,10 +8,14 @@ import com.hypixel.hytale.server.core.universe.Universe;
 import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.WorldMapTracker;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import dev.ninesliced.configs.BetterMapConfig;
+import dev.ninesliced.managers.ExplorationManager;
 import dev.ninesliced.managers.PlayerRadarManager;
 import dev.ninesliced.utils.WorldMapHook;
 
 import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -98,6 +102,9 @@ public class ExplorationTicker {
     private void updateWorldPlayers(World world) {
         if (world == null || !world.isAlive()) return;
 
+        boolean shared = BetterMapConfig.getInstance().isShareAllExploration();
+        List<ExploredChunksTracker> contributors = shared ? new ArrayList<>() : null;
+
         try {
             for (PlayerRef ref : world.getPlayerRefs()) {
                 if (ref == null) continue;
@@ -115,6 +122,10 @@ public class ExplorationTicker {
                     World playerWorld = player.getWorld();
                     if (playerWorld == null || !playerWorld.getName().equals(world.getName())) continue;
 
+                    if (contributors != null) {
+                        contributors.add(data.getExploredChunks());
+                    }
+
                     WorldMapTracker tracker = player.getWorldMapTracker();
                     if (tracker == null) continue;
 
@@ -131,5 +142,10 @@ public class ExplorationTicker {
             }
         } catch (Exception ignored) {
         }
+
+        // Shared exploration follows the players' delta logs here so readers only do a map lookup.
+        if (contributors != null) {
+            ExplorationManager.getInstance().refreshWorldUnion(world.getName(), contributors);
+        }
     }
 }
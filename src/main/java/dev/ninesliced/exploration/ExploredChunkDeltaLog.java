@@ -0,0 +1,292 @@
+package dev.ninesliced.exploration;
+
+import javax.annotation.Nonnull;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Bounded ring of newly explored chunk indices for a single player.
+ * <p>
+ * Every appended index gets an increasing sequence number. Consumers follow the log with a
+ * {@link Cursor} from {@link #register()} and drain everything appended after it, so several
+ * consumers can follow the same log independently. The ring only keeps entries some
+ * registered cursor has not read yet: when it fills up, the space every cursor has passed is
+ * reclaimed first, and the ring doubles only when the slowest cursor is a full ring behind.
+ * Once the cursors catch up the ring shrinks back. Past the maximum capacity the oldest
+ * entries are dropped; a cursor that falls that far behind gets {@link #OVERFLOW} and its
+ * consumer has to rescan the full explored set instead.
+ * <p>
+ * Cursors are held weakly, so a consumer that is dropped without {@link #release(Cursor)}
+ * stops holding entries once it is collected. Plain sequence numbers can still be drained
+ * with {@link #drain(long, LongConsumer)}, but they hold nothing and may overflow as soon as
+ * the registered cursors move on.
+ */
+public class ExploredChunkDeltaLog {
+    /**
+     * Returned by {@link #drain(long, LongConsumer)} when entries after the cursor were dropped.
+     */
+    public static final long OVERFLOW = -1L;
+
+    private static final int DEFAULT_CAPACITY = 4096;
+
+    /**
+     * Default largest ring size, 2 MB of indices. A player exploring at the default radius
+     * reveals far fewer chunks than this between autosaves, and past it a rescan is cheaper.
+     */
+    private static final int DEFAULT_MAX_CAPACITY = 1 << 18;
+
+    private final int minCapacity;
+    private final int maxCapacity;
+    private final List<WeakReference<Cursor>> cursors = new ArrayList<>();
+    private long[] ring;
+    private int mask;
+    private long head;
+    private long tail;
+
+    /**
+     * Creates a log with the default initial and maximum capacity.
+     */
+    public ExploredChunkDeltaLog() {
+        this(DEFAULT_CAPACITY, DEFAULT_MAX_CAPACITY);
+    }
+
+    /**
+     * Creates a log holding up to the given number of entries, without growing.
+     *
+     * @param capacity The capacity, rounded up to a power of two.
+     */
+    public ExploredChunkDeltaLog(int capacity) {
+        this(capacity, capacity);
+    }
+
+    /**
+     * Creates a log that starts at one capacity and grows up to another.
+     *
+     * @param capacity    The initial and smallest capacity, rounded up to a power of two.
+     * @param maxCapacity The largest capacity, rounded up to a power of two.
+     */
+    public ExploredChunkDeltaLog(int capacity, int maxCapacity) {
+        this.minCapacity = roundUp(capacity);
+        this.maxCapacity = Math.max(minCapacity, roundUp(maxCapacity));
+        this.ring = new long[minCapacity];
+        this.mask = minCapacity - 1;
+    }
+
+    private static int roundUp(int capacity) {
+        return Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+    }
+
+    /**
+     * Records a newly explored chunk.
+     *
+     * @param chunkIndex The chunk index.
+     */
+    public synchronized void append(long chunkIndex) {
+        if (head - tail == ring.length) {
+            reclaim();
+            if (head - tail == ring.length && ring.length < maxCapacity) {
+                resize(ring.length << 1);
+            }
+        }
+        ring[(int) (head & mask)] = chunkIndex;
+        head++;
+        if (head - tail > ring.length) {
+            tail = head - ring.length;
+        }
+    }
+
+    /**
+     * Registers a consumer starting at the current sequence number. Entries appended after
+     * this call are kept until the cursor drains them or is released.
+     *
+     * @return The new cursor.
+     */
+    @Nonnull
+    public synchronized Cursor register() {
+        Cursor cursor = new Cursor(head);
+        cursors.add(new WeakReference<>(cursor));
+        return cursor;
+    }
+
+    /**
+     * Stops a cursor from holding entries. A released cursor must not be drained again.
+     *
+     * @param cursor The cursor.
+     */
+    public synchronized void release(@Nonnull Cursor cursor) {
+        cursors.removeIf(ref -> {
+            Cursor current = ref.get();
+            return current == null || current == cursor;
+        });
+        shrinkIfIdle();
+    }
+
+    /**
+     * Moves a cursor to the current sequence number, skipping everything not yet read.
+     * Used after a consumer rescanned the full explored set.
+     *
+     * @param cursor The cursor.
+     */
+    public synchronized void reset(@Nonnull Cursor cursor) {
+        cursor.position = head;
+        shrinkIfIdle();
+    }
+
+    /**
+     * Visits every entry appended after a cursor and moves the cursor past them.
+     *
+     * @param cursor The consumer's cursor.
+     * @param action The consumer receiving each newly explored chunk index.
+     * @return True if the entries were visited, false if some were dropped; the cursor is
+     * then left in place and the consumer has to rescan and {@link #reset(Cursor)} it.
+     */
+    public synchronized boolean drain(@Nonnull Cursor cursor, @Nonnull LongConsumer action) {
+        long next = drain(cursor.position, action);
+        if (next == OVERFLOW) {
+            return false;
+        }
+        cursor.position = next;
+        shrinkIfIdle();
+        return true;
+    }
+
+    /**
+     * Moves a cursor past entries read with {@link #drain(long, LongConsumer)}, for consumers
+     * that only commit once the entries were handled.
+     *
+     * @param cursor   The cursor.
+     * @param position The sequence number returned by the drain.
+     */
+    public synchronized void advance(@Nonnull Cursor cursor, long position) {
+        if (position > cursor.position && position <= head) {
+            cursor.position = position;
+            shrinkIfIdle();
+        }
+    }
+
+    /**
+     * Gets the number of entries the ring can hold before it grows or drops entries.
+     *
+     * @return The current capacity.
+     */
+    public synchronized int getCapacity() {
+        return ring.length;
+    }
+
+    /**
+     * Gets the sequence number of the next entry to be appended.
+     * A new consumer starts from this value after scanning the full explored set.
+     *
+     * @return The current sequence number.
+     */
+    public synchronized long getSequence() {
+        return head;
+    }
+
+    /**
+     * Visits every entry appended after the cursor.
+     *
+     * @param cursor The consumer's last returned sequence number.
+     * @param action The consumer receiving each newly explored chunk index.
+     * @return The new cursor, or {@link #OVERFLOW} if entries after the cursor were dropped.
+     */
+    public synchronized long drain(long cursor, @Nonnull LongConsumer action) {
+        if (cursor < tail || cursor > head) {
+            return OVERFLOW;
+        }
+        for (long seq = cursor; seq < head; seq++) {
+            action.accept(ring[(int) (seq & mask)]);
+        }
+        return head;
+    }
+
+    /**
+     * Gets the number of entries appended after the cursor.
+     *
+     * @param cursor The consumer's cursor.
+     * @return The pending entry count, or -1 if the cursor overflowed.
+     */
+    public synchronized long pending(long cursor) {
+        if (cursor < tail || cursor > head) {
+            return -1;
+        }
+        return head - cursor;
+    }
+
+    /**
+     * Drops all buffered entries. Every consumer, including those fully caught up,
+     * will see an overflow and rescan.
+     */
+    public synchronized void clear() {
+        head++;
+        tail = head;
+        shrinkIfIdle();
+    }
+
+    /**
+     * Moves the tail up to the slowest live cursor, forgetting collected ones.
+     */
+    private void reclaim() {
+        long slowest = head;
+        Iterator<WeakReference<Cursor>> it = cursors.iterator();
+        while (it.hasNext()) {
+            Cursor cursor = it.next().get();
+            if (cursor == null) {
+                it.remove();
+            } else if (cursor.position >= tail) {
+                slowest = Math.min(slowest, cursor.position);
+            }
+        }
+        tail = Math.max(tail, slowest);
+    }
+
+    /**
+     * Shrinks a grown ring until the unread entries no longer fit in a quarter of it.
+     */
+    private void shrinkIfIdle() {
+        if (ring.length == minCapacity) {
+            return;
+        }
+        reclaim();
+        int size = ring.length;
+        while (size > minCapacity && head - tail <= size >> 2) {
+            size >>= 1;
+        }
+        if (size != ring.length) {
+            resize(size);
+        }
+    }
+
+    private void resize(int size) {
+        long[] resized = new long[size];
+        int resizedMask = size - 1;
+        for (long seq = tail; seq < head; seq++) {
+            resized[(int) (seq & resizedMask)] = ring[(int) (seq & mask)];
+        }
+        ring = resized;
+        mask = resizedMask;
+    }
+
+    /**
+     * A registered consumer's position in the log.
+     */
+    public static final class Cursor {
+        private volatile long position;
+
+        private Cursor(long position) {
+            this.position = position;
+        }
+
+        /**
+         * Gets the sequence number of the next entry this cursor will read.
+         *
+         * @return The position.
+         */
+        public long getPosition() {
+            return position;
+        }
+    }
+}
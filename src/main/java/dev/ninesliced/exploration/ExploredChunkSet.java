@@ -0,0 +1,245 @@
+package dev.ninesliced.exploration;
+
+import dev.ninesliced.utils.ChunkStencil;
+import dev.ninesliced.utils.ChunkUtil;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongConsumer;
+
+/**
+ * Thread-safe explored chunk set with a single-writer path and lock-free readers.
+ * <p>
+ * All writes are serialized through one lock and applied to the underlying
+ * {@link ExploredChunkStore}. Iterating readers read an immutable snapshot that is
+ * published after writes. A new snapshot is only taken on the first iteration after a
+ * write, so a burst of writes costs one snapshot. With the bitmap store a snapshot shares
+ * its region pages and costs O(regions); the hash store has to copy itself.
+ * <p>
+ * Point reads ({@link #isExplored(long)} and {@link #count()}) never take a snapshot: they
+ * use the published one if it is still current, and otherwise read the store under the
+ * write lock, so interleaved marks and lookups stay O(1) with either store.
+ * <p>
+ * A {@link MapChunkIndex} is maintained alongside the store and published together
+ * with it, so map-chunk readers always see the same state as chunk readers.
+ */
+public class ExploredChunkSet implements ExploredChunkView {
+    private final ExploredChunkStore store;
+    private final MapChunkIndex mapChunks = new MapChunkIndex();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Published published;
+
+    /**
+     * Creates an empty set using the storage type from the configuration.
+     */
+    public ExploredChunkSet() {
+        this(ExploredChunkStore.create());
+    }
+
+    /**
+     * Creates a set over the given store. The store must not be used directly afterward.
+     *
+     * @param store The backing store.
+     */
+    public ExploredChunkSet(@Nonnull ExploredChunkStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Marks a chunk as explored.
+     *
+     * @param chunkIndex The chunk index.
+     * @return True if the chunk was not explored before.
+     */
+    public boolean mark(long chunkIndex) {
+        writeLock.lock();
+        try {
+            return invalidateIfAdded(markLocked(chunkIndex, null)) > 0;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Marks chunks as explored under a single lock acquisition.
+     *
+     * @param chunkIndices The chunk indices.
+     * @param onNew        Receives each chunk that was not explored before (can be null).
+     * @return The number of newly explored chunks.
+     */
+    public int markAll(@Nonnull long[] chunkIndices, @Nullable LongConsumer onNew) {
+        writeLock.lock();
+        try {
+            int added = 0;
+            for (long chunk : chunkIndices) {
+                added += markLocked(chunk, onNew);
+            }
+            return invalidateIfAdded(added);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Marks chunks as explored under a single lock acquisition.
+     *
+     * @param chunkIndices The chunk indices.
+     * @param onNew        Receives each chunk that was not explored before (can be null).
+     * @return The number of newly explored chunks.
+     */
+    public int markAll(@Nonnull Iterable<Long> chunkIndices, @Nullable LongConsumer onNew) {
+        writeLock.lock();
+        try {
+            int added = 0;
+            for (long chunk : chunkIndices) {
+                added += markLocked(chunk, onNew);
+            }
+            return invalidateIfAdded(added);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Marks the chunks of a stencil around a center as explored.
+     *
+     * @param centerChunkX Center chunk X.
+     * @param centerChunkZ Center chunk Z.
+     * @param offsets      Packed offsets from {@link ChunkStencil}.
+     * @param onNew        Receives each chunk that was not explored before (can be null).
+     * @return The number of newly explored chunks.
+     */
+    public int markStencil(int centerChunkX, int centerChunkZ, @Nonnull int[] offsets, @Nullable LongConsumer onNew) {
+        writeLock.lock();
+        try {
+            int added = 0;
+            for (int offset : offsets) {
+                added += markLocked(ChunkUtil.chunkCoordsToIndex(
+                        centerChunkX + ChunkStencil.offsetX(offset),
+                        centerChunkZ + ChunkStencil.offsetZ(offset)), onNew);
+            }
+            return invalidateIfAdded(added);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Removes all explored chunks.
+     */
+    public void clear() {
+        writeLock.lock();
+        try {
+            store.clear();
+            mapChunks.clear();
+            published = null;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the latest published snapshot, publishing a new one if a write happened since.
+     * The returned view is immutable and can be shared with any thread.
+     *
+     * @return The snapshot view.
+     */
+    @Nonnull
+    public ExploredChunkView snapshot() {
+        return publish().chunks();
+    }
+
+    /**
+     * Gets the latest published map-chunk index snapshot, consistent with {@link #snapshot()}.
+     *
+     * @return The map-chunk index view.
+     */
+    @Nonnull
+    public MapChunkIndex.View mapChunkSnapshot() {
+        return publish().mapChunks();
+    }
+
+    @Override
+    public boolean isExplored(long chunkIndex) {
+        Published current = published;
+        if (current != null) {
+            return current.chunks().isExplored(chunkIndex);
+        }
+
+        writeLock.lock();
+        try {
+            return store.isExplored(chunkIndex);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public int count() {
+        Published current = published;
+        if (current != null) {
+            return current.chunks().count();
+        }
+
+        writeLock.lock();
+        try {
+            return store.count();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void forEach(@Nonnull LongConsumer action) {
+        snapshot().forEach(action);
+    }
+
+    @Override
+    public void forEachInRange(int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ, @Nonnull LongConsumer action) {
+        snapshot().forEachInRange(minChunkX, minChunkZ, maxChunkX, maxChunkZ, action);
+    }
+
+    private Published publish() {
+        Published current = published;
+        if (current != null) {
+            return current;
+        }
+
+        writeLock.lock();
+        try {
+            current = published;
+            if (current == null) {
+                current = new Published(store.snapshot(), mapChunks.snapshot());
+                published = current;
+            }
+            return current;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private int invalidateIfAdded(int added) {
+        if (added > 0) {
+            published = null;
+        }
+        return added;
+    }
+
+    private int markLocked(long chunkIndex, @Nullable LongConsumer onNew) {
+        if (!store.mark(chunkIndex)) {
+            return 0;
+        }
+        mapChunks.increment(chunkIndex);
+        if (onNew != null) {
+            onNew.accept(chunkIndex);
+        }
+        return 1;
+    }
+
+    /**
+     * Chunk and map-chunk snapshots published together.
+     */
+    private record Published(@Nonnull ExploredChunkView chunks, @Nonnull MapChunkIndex.View mapChunks) {
+    }
+}
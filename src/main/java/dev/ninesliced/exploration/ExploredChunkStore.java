@@ -0,0 +1,58 @@
+package dev.ninesliced.exploration;
+
+import dev.ninesliced.configs.BetterMapConfig;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Backing storage for a set of explored chunk indices.
+ * Implementations are not thread-safe; callers are expected to guard access.
+ */
+public interface ExploredChunkStore extends ExploredChunkView {
+
+    /**
+     * Creates an empty store of the given storage type.
+     *
+     * @param storage The storage type.
+     * @return A new empty store.
+     */
+    @Nonnull
+    static ExploredChunkStore create(@Nonnull BetterMapConfig.ExplorationStorage storage) {
+        return switch (storage) {
+            case HASH -> new HashExploredChunkStore();
+            case BITMAP -> new RegionBitmapChunkStore();
+        };
+    }
+
+    /**
+     * Creates an empty store using the storage type from the configuration.
+     *
+     * @return A new empty store.
+     */
+    @Nonnull
+    static ExploredChunkStore create() {
+        return create(BetterMapConfig.getInstance().getExplorationStorage());
+    }
+
+    /**
+     * Marks a chunk as explored.
+     *
+     * @param chunkIndex The packed chunk index.
+     * @return True if the chunk was not explored before.
+     */
+    boolean mark(long chunkIndex);
+
+    /**
+     * Removes all explored chunks.
+     */
+    void clear();
+
+    /**
+     * Takes an immutable snapshot of the current contents.
+     * Later writes to this store are not visible through the snapshot.
+     *
+     * @return The snapshot view.
+     */
+    @Nonnull
+    ExploredChunkView snapshot();
+}
@@ -0,0 +1,67 @@
+package dev.ninesliced.exploration;
+
+import javax.annotation.Nonnull;
+import java.util.function.LongConsumer;
+
+/**
+ * Read-only view over a set of explored chunk indices.
+ * Iteration hands out primitive indices and never copies the underlying set.
+ */
+public interface ExploredChunkView {
+
+    /**
+     * Checks if a chunk has been explored.
+     *
+     * @param chunkIndex The packed chunk index.
+     * @return True if explored.
+     */
+    boolean isExplored(long chunkIndex);
+
+    /**
+     * Gets the number of explored chunks.
+     *
+     * @return The explored chunk count.
+     */
+    int count();
+
+    /**
+     * Visits every explored chunk index, in no particular order.
+     *
+     * @param action The consumer receiving each chunk index.
+     */
+    void forEach(@Nonnull LongConsumer action);
+
+    /**
+     * Visits the explored chunks inside a rectangular chunk range (inclusive).
+     * Region-backed views only walk the regions overlapping the range.
+     *
+     * @param minChunkX Min chunk X.
+     * @param minChunkZ Min chunk Z.
+     * @param maxChunkX Max chunk X.
+     * @param maxChunkZ Max chunk Z.
+     * @param action    The consumer receiving each chunk index.
+     */
+    void forEachInRange(int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ, @Nonnull LongConsumer action);
+
+    /**
+     * Copies all explored chunk indices into a new array.
+     *
+     * @return The explored chunk indices, in no particular order.
+     */
+    @Nonnull
+    default long[] toLongArray() {
+        long[] result = new long[count()];
+        int[] cursor = new int[1];
+        forEach(chunk -> result[cursor[0]++] = chunk);
+        return result;
+    }
+
+    /**
+     * Checks if no chunk has been explored.
+     *
+     * @return True if empty.
+     */
+    default boolean isEmpty() {
+        return count() == 0;
+    }
+}
@@ -1,23 +1,24 @@
 package dev.ninesliced.exploration;
 
 import dev.ninesliced.components.ExplorationComponent;
+import dev.ninesliced.utils.ChunkStencil;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
 
 /**
  * Thread-safe tracker for the set of explored chunks.
- * Uses a persistent component if available, otherwise falls back to memory storage.
+ * Uses the chunk set of a persistent component if available, otherwise falls back to a memory-only set.
+ * <p>
+ * Writes are serialized by the underlying {@link ExploredChunkSet}; reads go to its published
+ * snapshot and never block writers, so marker providers and persistence can read from any thread.
  */
 public class ExploredChunksTracker {
-    private final Set<Long> memoryExploredChunks;
-    private final ExplorationComponent persistentComponent;
-    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ExploredChunkSet chunks;
+    private final ExploredChunkDeltaLog newlyExplored = new ExploredChunkDeltaLog();
 
     /**
      * Creates a new tracker.
@@ -25,12 +26,7 @@ public class ExploredChunksTracker {
      * @param component The persistent component to use (can be null).
      */
     public ExploredChunksTracker(@Nullable ExplorationComponent component) {
-        this.persistentComponent = component;
-        if (component == null) {
-            this.memoryExploredChunks = ConcurrentHashMap.newKeySet();
-        } else {
-            this.memoryExploredChunks = null;
-        }
+        this.chunks = component != null ? component.getExploredChunks() : new ExploredChunkSet();
     }
 
     /**
@@ -39,16 +35,8 @@ public class ExploredChunksTracker {
      * @param chunkIndex The chunk index to mark.
      */
     public void markChunkExplored(long chunkIndex) {
-        if (persistentComponent != null) {
-            persistentComponent.addExploredChunk(chunkIndex);
-            return;
-        }
-
-        lock.writeLock().lock();
-        try {
-            memoryExploredChunks.add(chunkIndex);
-        } finally {
-            lock.writeLock().unlock();
+        if (chunks.mark(chunkIndex)) {
+            newlyExplored.append(chunkIndex);
         }
     }
 
@@ -58,19 +46,27 @@ public class ExploredChunksTracker {
      * @param chunkIndices The set of chunk indices.
      */
     public void markChunksExplored(@Nonnull Set<Long> chunkIndices) {
-        if (persistentComponent != null) {
-            for (Long chunk : chunkIndices) {
-                persistentComponent.addExploredChunk(chunk);
-            }
-            return;
-        }
+        chunks.markAll(chunkIndices, newlyExplored::append);
+    }
 
-        lock.writeLock().lock();
-        try {
-            memoryExploredChunks.addAll(chunkIndices);
-        } finally {
-            lock.writeLock().unlock();
-        }
+    /**
+     * Marks an array of chunks as explored.
+     *
+     * @param chunkIndices The chunk indices.
+     */
+    public void markChunksExplored(@Nonnull long[] chunkIndices) {
+        chunks.markAll(chunkIndices, newlyExplored::append);
+    }
+
+    /**
+     * Marks the chunks of a stencil around a center as explored, without allocating.
+     *
+     * @param centerChunkX Center chunk X.
+     * @param centerChunkZ Center chunk Z.
+     * @param offsets      Packed offsets from {@link ChunkStencil}.
+     */
+    public void markChunksExplored(int centerChunkX, int centerChunkZ, @Nonnull int[] offsets) {
+        chunks.markStencil(centerChunkX, centerChunkZ, offsets, newlyExplored::append);
     }
 
     /**
@@ -80,35 +76,66 @@ public class ExploredChunksTracker {
      * @return True if explored.
      */
     public boolean isChunkExplored(long chunkIndex) {
-        if (persistentComponent != null) {
-            return persistentComponent.isExplored(chunkIndex);
-        }
+        return chunks.isExplored(chunkIndex);
+    }
 
-        lock.readLock().lock();
-        try {
-            return memoryExploredChunks.contains(chunkIndex);
-        } finally {
-            lock.readLock().unlock();
-        }
+    /**
+     * Visits every explored chunk index without copying the set.
+     *
+     * @param action The consumer receiving each chunk index.
+     */
+    public void forEachExplored(@Nonnull LongConsumer action) {
+        chunks.forEach(action);
+    }
+
+    /**
+     * Visits the explored chunks inside a rectangular chunk range (inclusive).
+     *
+     * @param minChunkX Min chunk X.
+     * @param minChunkZ Min chunk Z.
+     * @param maxChunkX Max chunk X.
+     * @param maxChunkZ Max chunk Z.
+     * @param action    The consumer receiving each chunk index.
+     */
+    public void forEachExploredInRange(int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ, @Nonnull LongConsumer action) {
+        chunks.forEachInRange(minChunkX, minChunkZ, maxChunkX, maxChunkZ, action);
     }
 
     /**
-     * Gets a copy of all explored chunk indices.
+     * Gets an immutable snapshot of the explored chunks.
+     * With the bitmap store this shares pages with the tracker instead of copying them,
+     * so the snapshot can safely be handed to other threads.
+     *
+     * @return The snapshot view.
+     */
+    @Nonnull
+    public ExploredChunkView snapshot() {
+        return chunks.snapshot();
+    }
+
+    /**
+     * Gets the explored index at map-chunk (2x2 world chunks) granularity.
+     * It is maintained incrementally as chunks are marked, so reading it is O(1).
+     *
+     * @return The map-chunk index view, consistent with {@link #snapshot()}.
+     */
+    @Nonnull
+    public MapChunkIndex.View getMapChunks() {
+        return chunks.mapChunkSnapshot();
+    }
+
+    /**
+     * Gets a copy of all explored chunk indices as boxed values.
+     * Prefer {@link #forEachExplored(LongConsumer)} or {@link #snapshot()}, which do not copy.
      *
      * @return Set of all explored chunk indices.
      */
     @Nonnull
     public Set<Long> getExploredChunks() {
-        if (persistentComponent != null) {
-            return new HashSet<>(persistentComponent.getExploredChunks());
-        }
-
-        lock.readLock().lock();
-        try {
-            return new HashSet<>(memoryExploredChunks);
-        } finally {
-            lock.readLock().unlock();
-        }
+        ExploredChunkView view = chunks.snapshot();
+        Set<Long> result = new HashSet<>(view.count() * 2);
+        view.forEach(result::add);
+        return result;
     }
 
     /**
@@ -117,32 +144,36 @@ public class ExploredChunksTracker {
      * @return The number of explored chunks.
      */
     public int getExploredCount() {
-        if (persistentComponent != null) {
-            return persistentComponent.getExploredChunks().size();
-        }
-
-        lock.readLock().lock();
-        try {
-            return memoryExploredChunks.size();
-        } finally {
-            lock.readLock().unlock();
-        }
+        return chunks.count();
     }
 
     /**
      * Clears all explored chunks data.
      */
     public void clear() {
-        if (persistentComponent != null) {
-            persistentComponent.getExploredChunks().clear();
-            return;
-        }
+        chunks.clear();
+        newlyExplored.clear();
+    }
 
-        lock.writeLock().lock();
-        try {
-            memoryExploredChunks.clear();
-        } finally {
-            lock.writeLock().unlock();
-        }
+    /**
+     * Gets the dirty generation of this tracker. It is bumped every time a chunk is newly
+     * explored and when the tracker is cleared, so a saver can compare it with the
+     * generation it last persisted to tell whether anything changed.
+     *
+     * @return The current generation.
+     */
+    public long getGeneration() {
+        return newlyExplored.getSequence();
+    }
+
+    /**
+     * Gets the log of chunks that were newly explored, in exploration order.
+     * Consumers keep their own cursor; see {@link ExploredChunkDeltaLog}.
+     *
+     * @return The delta log.
+     */
+    @Nonnull
+    public ExploredChunkDeltaLog getNewlyExplored() {
+        return newlyExplored;
     }
 }
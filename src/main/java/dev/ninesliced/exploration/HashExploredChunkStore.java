@@ -0,0 +1,110 @@
+package dev.ninesliced.exploration;
+
+import dev.ninesliced.utils.ChunkUtil;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+
+import javax.annotation.Nonnull;
+import java.util.function.LongConsumer;
+
+/**
+ * Explored chunk store backed by a primitive open hash set.
+ * Cheap for small, scattered sets; costs roughly 16-32 bytes per chunk.
+ */
+public class HashExploredChunkStore implements ExploredChunkStore {
+    private final LongOpenHashSet chunks;
+
+    /**
+     * Creates an empty store.
+     */
+    public HashExploredChunkStore() {
+        this(new LongOpenHashSet());
+    }
+
+    private HashExploredChunkStore(@Nonnull LongOpenHashSet chunks) {
+        this.chunks = chunks;
+    }
+
+    @Override
+    public boolean mark(long chunkIndex) {
+        return chunks.add(chunkIndex);
+    }
+
+    @Override
+    public boolean isExplored(long chunkIndex) {
+        return chunks.contains(chunkIndex);
+    }
+
+    @Override
+    public int count() {
+        return chunks.size();
+    }
+
+    @Override
+    public void forEach(@Nonnull LongConsumer action) {
+        LongIterator it = chunks.iterator();
+        while (it.hasNext()) {
+            action.accept(it.nextLong());
+        }
+    }
+
+    @Override
+    public void forEachInRange(int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ, @Nonnull LongConsumer action) {
+        LongIterator it = chunks.iterator();
+        while (it.hasNext()) {
+            long chunk = it.nextLong();
+            int x = ChunkUtil.indexToChunkX(chunk);
+            int z = ChunkUtil.indexToChunkZ(chunk);
+            if (x >= minChunkX && x <= maxChunkX && z >= minChunkZ && z <= maxChunkZ) {
+                action.accept(chunk);
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        chunks.clear();
+    }
+
+    @Nonnull
+    @Override
+    public long[] toLongArray() {
+        return chunks.toLongArray();
+    }
+
+    /**
+     * Hash sets have no pages to share, so the snapshot is a full copy.
+     *
+     * @return A read-only copy of this store.
+     */
+    @Nonnull
+    @Override
+    public ExploredChunkView snapshot() {
+        return new ReadOnlyView(new HashExploredChunkStore(chunks.clone()));
+    }
+
+    /**
+     * Read-only wrapper hiding the mutators of a detached store.
+     */
+    private record ReadOnlyView(@Nonnull ExploredChunkView delegate) implements ExploredChunkView {
+        @Override
+        public boolean isExplored(long chunkIndex) {
+            return delegate.isExplored(chunkIndex);
+        }
+
+        @Override
+        public int count() {
+            return delegate.count();
+        }
+
+        @Override
+        public void forEach(@Nonnull LongConsumer action) {
+            delegate.forEach(action);
+        }
+
+        @Override
+        public void forEachInRange(int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ, @Nonnull LongConsumer action) {
+            delegate.forEachInRange(minChunkX, minChunkZ, maxChunkX, maxChunkZ, action);
+        }
+    }
+}
@@ -0,0 +1,465 @@
+package dev.ninesliced.exploration;
+
+import dev.ninesliced.utils.ChunkUtil;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Explored index at map-chunk granularity. A map chunk covers 2x2 world chunks, and
+ * the index keeps the number of explored world chunks (0-4) under each map chunk.
+ * <p>
+ * The index is updated incrementally as world chunks are newly explored, so readers
+ * such as the world map iterator never have to rescan the full explored set.
+ * Map chunks are paged into {@link #PAGE_SIZE} x {@link #PAGE_SIZE} pages with one
+ * count byte per map chunk and an occupancy bitmap for fast iteration. Snapshots share
+ * pages with the index and use the same epoch copy-on-write scheme as
+ * {@link RegionBitmapChunkStore}.
+ * <p>
+ * Pages double as grid buckets for nearest-N queries: pages are looked up in square
+ * rings outward from the query point's page and the search stops once no further ring
+ * can hold a closer map chunk, so the cost follows the requested count rather than the
+ * total explored area. Pages too sparse to reach ring by ring are sorted by distance
+ * instead.
+ * <p>
+ * Not thread-safe; writes are serialized by {@link ExploredChunkSet}.
+ */
+public class MapChunkIndex {
+    /**
+     * Log2 of the page side length in map chunks.
+     */
+    public static final int PAGE_SHIFT = 5;
+    /**
+     * Page side length in map chunks.
+     */
+    public static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+
+    private static final int LOCAL_MASK = PAGE_SIZE - 1;
+    private static final int CELLS_PER_PAGE = PAGE_SIZE * PAGE_SIZE;
+
+    private final Long2ObjectOpenHashMap<Page> pages = new Long2ObjectOpenHashMap<>();
+    private int size;
+    private int epoch;
+
+    /**
+     * Builds a standalone index from an explored chunk view.
+     *
+     * @param chunks The explored world chunks.
+     * @return An immutable view of the resulting index.
+     */
+    @Nonnull
+    public static View of(@Nonnull ExploredChunkView chunks) {
+        MapChunkIndex index = new MapChunkIndex();
+        chunks.forEach(index::increment);
+        return index.snapshot();
+    }
+
+    /**
+     * Records a newly explored world chunk. Must be called at most once per world chunk.
+     *
+     * @param worldChunkIndex The packed world chunk index.
+     * @return True if the containing map chunk had no explored chunk before.
+     */
+    public boolean increment(long worldChunkIndex) {
+        int mapX = ChunkUtil.indexToChunkX(worldChunkIndex) >> 1;
+        int mapZ = ChunkUtil.indexToChunkZ(worldChunkIndex) >> 1;
+        long pageKey = pageKey(mapX, mapZ);
+
+        Page page = pages.get(pageKey);
+        if (page == null) {
+            page = new Page(epoch);
+            pages.put(pageKey, page);
+        } else if (page.epoch != epoch) {
+            page = page.copy(epoch);
+            pages.put(pageKey, page);
+        }
+
+        int cell = cellIndex(mapX, mapZ);
+        if (page.counts[cell]++ != 0) {
+            return false;
+        }
+        page.occupied[cell >> 6] |= 1L << cell;
+        size++;
+        return true;
+    }
+
+    /**
+     * Gets the number of explored world chunks under a map chunk.
+     *
+     * @param mapChunkX Map chunk X.
+     * @param mapChunkZ Map chunk Z.
+     * @return The explored sub-chunk count, from 0 to 4.
+     */
+    public int getCount(int mapChunkX, int mapChunkZ) {
+        return countIn(pages, mapChunkX, mapChunkZ);
+    }
+
+    /**
+     * Gets the number of map chunks with at least one explored world chunk.
+     *
+     * @return The map chunk count.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Visits every map chunk with at least one explored world chunk.
+     *
+     * @param action The consumer receiving each map chunk and its count.
+     */
+    public void forEach(@Nonnull MapChunkConsumer action) {
+        forEachIn(pages, action);
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        pages.clear();
+        size = 0;
+    }
+
+    /**
+     * Shares every page with the snapshot and bumps the epoch, so the next write
+     * to any shared page copies it first. Costs O(pages).
+     *
+     * @return The snapshot view.
+     */
+    @Nonnull
+    public View snapshot() {
+        View view = new View(new Long2ObjectOpenHashMap<>(pages), size);
+        epoch++;
+        return view;
+    }
+
+    private static long pageKey(int mapX, int mapZ) {
+        return ChunkUtil.chunkCoordsToIndex(mapX >> PAGE_SHIFT, mapZ >> PAGE_SHIFT);
+    }
+
+    private static int cellIndex(int mapX, int mapZ) {
+        return ((mapZ & LOCAL_MASK) << PAGE_SHIFT) | (mapX & LOCAL_MASK);
+    }
+
+    private static int countIn(Long2ObjectOpenHashMap<Page> pages, int mapX, int mapZ) {
+        Page page = pages.get(pageKey(mapX, mapZ));
+        return page == null ? 0 : page.counts[cellIndex(mapX, mapZ)];
+    }
+
+    private static void forEachIn(Long2ObjectOpenHashMap<Page> pages, MapChunkConsumer action) {
+        for (Long2ObjectOpenHashMap.Entry<Page> entry : pages.long2ObjectEntrySet()) {
+            long pageKey = entry.getLongKey();
+            int baseX = ChunkUtil.indexToChunkX(pageKey) << PAGE_SHIFT;
+            int baseZ = ChunkUtil.indexToChunkZ(pageKey) << PAGE_SHIFT;
+            Page page = entry.getValue();
+
+            for (int w = 0; w < page.occupied.length; w++) {
+                long word = page.occupied[w];
+                while (word != 0) {
+                    int cell = (w << 6) | Long.numberOfTrailingZeros(word);
+                    action.accept(baseX + (cell & LOCAL_MASK), baseZ + (cell >> PAGE_SHIFT), page.counts[cell]);
+                    word &= word - 1;
+                }
+            }
+        }
+    }
+
+    private static long[] nearestIn(Long2ObjectOpenHashMap<Page> pages, int centerX, int centerZ, int limit) {
+        if (limit <= 0 || pages.isEmpty()) {
+            return new long[0];
+        }
+
+        NearestHeap heap = new NearestHeap(limit);
+        int pageX = centerX >> PAGE_SHIFT;
+        int pageZ = centerZ >> PAGE_SHIFT;
+        int remaining = pages.size();
+        // Past a few lookups per page, sorting the pages is cheaper; only sparse, far-flung pages get there.
+        long budget = 4L * remaining + 64;
+        for (int ring = 0; remaining > 0; ring++) {
+            if (heap.isFull() && ringDistance(ring) > heap.maxDistance()) {
+                break;
+            }
+            int cells = ring == 0 ? 1 : ring << 3;
+            if (budget < cells) {
+                nearestSorted(pages, centerX, centerZ, ring, heap);
+                break;
+            }
+            budget -= cells;
+
+            if (ring == 0) {
+                remaining -= offerPage(pages, pageX, pageZ, centerX, centerZ, heap);
+                continue;
+            }
+            for (int d = -ring; d <= ring; d++) {
+                remaining -= offerPage(pages, pageX + d, pageZ - ring, centerX, centerZ, heap);
+                remaining -= offerPage(pages, pageX + d, pageZ + ring, centerX, centerZ, heap);
+            }
+            for (int d = -ring + 1; d < ring; d++) {
+                remaining -= offerPage(pages, pageX - ring, pageZ + d, centerX, centerZ, heap);
+                remaining -= offerPage(pages, pageX + ring, pageZ + d, centerX, centerZ, heap);
+            }
+        }
+
+        return heap.drainAscending();
+    }
+
+    /**
+     * Lower bound of the squared distance from a point to any map chunk in the ring of pages
+     * at the given Chebyshev distance from the point's page.
+     */
+    private static long ringDistance(int ring) {
+        if (ring == 0) {
+            return 0;
+        }
+        long gap = (long) (ring - 1) * PAGE_SIZE + 1;
+        return gap * gap;
+    }
+
+    /**
+     * Offers every map chunk of a page to the heap.
+     *
+     * @return 1 if the page exists, 0 otherwise.
+     */
+    private static int offerPage(Long2ObjectOpenHashMap<Page> pages, int pageX, int pageZ,
+                                 int centerX, int centerZ, NearestHeap heap) {
+        Page page = pages.get(ChunkUtil.chunkCoordsToIndex(pageX, pageZ));
+        if (page == null) {
+            return 0;
+        }
+        offerPage(page, pageX << PAGE_SHIFT, pageZ << PAGE_SHIFT, centerX, centerZ, heap);
+        return 1;
+    }
+
+    private static void offerPage(Page page, int baseX, int baseZ, int centerX, int centerZ, NearestHeap heap) {
+        long[] occupied = page.occupied;
+        for (int w = 0; w < occupied.length; w++) {
+            long word = occupied[w];
+            while (word != 0) {
+                int cell = (w << 6) | Long.numberOfTrailingZeros(word);
+                int x = baseX + (cell & LOCAL_MASK);
+                int z = baseZ + (cell >> PAGE_SHIFT);
+                long dx = (long) x - centerX;
+                long dz = (long) z - centerZ;
+                heap.offer(dx * dx + dz * dz, ChunkUtil.chunkCoordsToIndex(x, z));
+                word &= word - 1;
+            }
+        }
+    }
+
+    /**
+     * Visits the pages from a ring outward in order of their distance to the point, for
+     * pages too sparse to reach ring by ring.
+     */
+    private static void nearestSorted(Long2ObjectOpenHashMap<Page> pages, int centerX, int centerZ, int fromRing,
+                                      NearestHeap heap) {
+        int pageX = centerX >> PAGE_SHIFT;
+        int pageZ = centerZ >> PAGE_SHIFT;
+        int pageCount = pages.size();
+        long[] pageKeys = new long[pageCount];
+        Page[] pageValues = new Page[pageCount];
+        long[] pageDistances = new long[pageCount];
+        int[] order = new int[pageCount];
+
+        int p = 0;
+        for (Long2ObjectOpenHashMap.Entry<Page> entry : pages.long2ObjectEntrySet()) {
+            long pageKey = entry.getLongKey();
+            int keyX = ChunkUtil.indexToChunkX(pageKey);
+            int keyZ = ChunkUtil.indexToChunkZ(pageKey);
+            if (Math.max(Math.abs((long) keyX - pageX), Math.abs((long) keyZ - pageZ)) < fromRing) {
+                continue;
+            }
+            long minX = (long) keyX << PAGE_SHIFT;
+            long minZ = (long) keyZ << PAGE_SHIFT;
+            long dx = Math.max(0, Math.max(minX - centerX, centerX - (minX + LOCAL_MASK)));
+            long dz = Math.max(0, Math.max(minZ - centerZ, centerZ - (minZ + LOCAL_MASK)));
+            pageKeys[p] = pageKey;
+            pageValues[p] = entry.getValue();
+            pageDistances[p] = dx * dx + dz * dz;
+            order[p] = p;
+            p++;
+        }
+        IntArrays.quickSort(order, 0, p, (a, b) -> Long.compare(pageDistances[a], pageDistances[b]));
+
+        for (int i = 0; i < p; i++) {
+            int page = order[i];
+            if (heap.isFull() && pageDistances[page] > heap.maxDistance()) {
+                break;
+            }
+            offerPage(pageValues[page], ChunkUtil.indexToChunkX(pageKeys[page]) << PAGE_SHIFT,
+                    ChunkUtil.indexToChunkZ(pageKeys[page]) << PAGE_SHIFT, centerX, centerZ, heap);
+        }
+    }
+
+    /**
+     * Bounded max-heap of map chunks keyed by squared distance, keeping the closest ones.
+     */
+    private static final class NearestHeap {
+        private final long[] distances;
+        private final long[] chunks;
+        private int size;
+
+        NearestHeap(int capacity) {
+            this.distances = new long[capacity];
+            this.chunks = new long[capacity];
+        }
+
+        boolean isFull() {
+            return size == distances.length;
+        }
+
+        long maxDistance() {
+            return distances[0];
+        }
+
+        void offer(long distance, long chunk) {
+            if (size < distances.length) {
+                int i = size++;
+                while (i > 0) {
+                    int parent = (i - 1) >> 1;
+                    if (distances[parent] >= distance) {
+                        break;
+                    }
+                    distances[i] = distances[parent];
+                    chunks[i] = chunks[parent];
+                    i = parent;
+                }
+                distances[i] = distance;
+                chunks[i] = chunk;
+            } else if (distance < distances[0]) {
+                siftDown(distance, chunk, size);
+            }
+        }
+
+        long[] drainAscending() {
+            long[] result = new long[size];
+            for (int i = size - 1; i >= 0; i--) {
+                result[i] = chunks[0];
+                size--;
+                if (size > 0) {
+                    siftDown(distances[size], chunks[size], size);
+                }
+            }
+            return result;
+        }
+
+        private void siftDown(long distance, long chunk, int heapSize) {
+            int i = 0;
+            while (true) {
+                int child = (i << 1) + 1;
+                if (child >= heapSize) {
+                    break;
+                }
+                if (child + 1 < heapSize && distances[child + 1] > distances[child]) {
+                    child++;
+                }
+                if (distances[child] <= distance) {
+                    break;
+                }
+                distances[i] = distances[child];
+                chunks[i] = chunks[child];
+                i = child;
+            }
+            distances[i] = distance;
+            chunks[i] = chunk;
+        }
+    }
+
+    /**
+     * Receives a map chunk and the number of explored world chunks under it.
+     */
+    @FunctionalInterface
+    public interface MapChunkConsumer {
+        void accept(int mapChunkX, int mapChunkZ, int exploredCount);
+    }
+
+    /**
+     * Immutable view over pages shared with the index at snapshot time.
+     */
+    public static final class View {
+        private final Long2ObjectOpenHashMap<Page> pages;
+        private final int size;
+
+        private View(Long2ObjectOpenHashMap<Page> pages, int size) {
+            this.pages = pages;
+            this.size = size;
+        }
+
+        /**
+         * Gets the number of explored world chunks under a map chunk.
+         *
+         * @param mapChunkX Map chunk X.
+         * @param mapChunkZ Map chunk Z.
+         * @return The explored sub-chunk count, from 0 to 4.
+         */
+        public int getCount(int mapChunkX, int mapChunkZ) {
+            return countIn(pages, mapChunkX, mapChunkZ);
+        }
+
+        /**
+         * Gets the number of map chunks with at least one explored world chunk.
+         *
+         * @return The map chunk count.
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Checks if no map chunk has been explored.
+         *
+         * @return True if empty.
+         */
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        /**
+         * Visits every map chunk with at least one explored world chunk.
+         *
+         * @param action The consumer receiving each map chunk and its count.
+         */
+        public void forEach(@Nonnull MapChunkConsumer action) {
+            forEachIn(pages, action);
+        }
+
+        /**
+         * Finds the explored map chunks closest to a point.
+         *
+         * @param centerX Center map chunk X.
+         * @param centerZ Center map chunk Z.
+         * @param limit   The maximum number of map chunks to return.
+         * @return Packed map chunk indices ({@link ChunkUtil#chunkCoordsToIndex(int, int)}),
+         * nearest first.
+         */
+        @Nonnull
+        public long[] nearest(int centerX, int centerZ, int limit) {
+            return nearestIn(pages, centerX, centerZ, limit);
+        }
+    }
+
+    /**
+     * A page of {@link #PAGE_SIZE} x {@link #PAGE_SIZE} map chunk counts.
+     */
+    private static final class Page {
+        final byte[] counts;
+        final long[] occupied;
+        final int epoch;
+
+        Page(int epoch) {
+            this.counts = new byte[CELLS_PER_PAGE];
+            this.occupied = new long[CELLS_PER_PAGE >> 6];
+            this.epoch = epoch;
+        }
+
+        private Page(Page source, int epoch) {
+            this.counts = source.counts.clone();
+            this.occupied = source.occupied.clone();
+            this.epoch = epoch;
+        }
+
+        Page copy(int epoch) {
+            return new Page(this, epoch);
+        }
+    }
+}
@@ -0,0 +1,385 @@
+package dev.ninesliced.exploration;
+
+import dev.ninesliced.utils.ChunkUtil;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrays;
+
+import javax.annotation.Nonnull;
+import java.lang.ref.WeakReference;
+import java.util.function.LongConsumer;
+
+/**
+ * Keeps the set of explored map chunks nearest to a moving center, emitting add and
+ * remove deltas instead of rebuilding the whole set on every move.
+ * <p>
+ * A full recompute takes the nearest {@code limit - limit / 8} map chunks and fixes the window
+ * radius at the distance of the farthest one. While the center moves by small steps,
+ * only the leading crescent (inside the radius around the new center but not the old
+ * one) is scanned for additions, and only the trailing crescent of the outer radius
+ * (radius plus hysteresis) is scanned for removals, so a chunk near the edge does not
+ * flap in and out while the player walks back and forth. Newly explored chunks come
+ * from the player's {@link ExploredChunkDeltaLog}. Steady-state walking costs
+ * O(radius x step). The window falls back to a full recompute when the step is large,
+ * the log overflows, the window would grow past {@code limit}, or it shrinks well below
+ * what a recompute would fill. Leaving an eighth of the limit free after a recompute keeps
+ * the size from flapping while {@code limit} stays a hard upper bound.
+ * <p>
+ * Not thread-safe; callers serialize access.
+ */
+public class NearestMapChunkWindow {
+    /**
+     * Extra radius, in map chunks, a chunk may drift beyond the window radius before it is removed.
+     */
+    public static final int DEFAULT_HYSTERESIS = 2;
+    /**
+     * Largest per-axis center step, in map chunks, handled incrementally.
+     */
+    public static final int MAX_INCREMENTAL_STEP = 2;
+
+    private final int hysteresis;
+    private final Long2IntOpenHashMap positions = new Long2IntOpenHashMap();
+    private final LongArrayList order = new LongArrayList();
+    private int recentStart;
+
+    private boolean tracking;
+    private boolean bounded;
+    private int centerX;
+    private int centerZ;
+    private int limit = -1;
+    private long radiusSq;
+    private long outerSq;
+    private WeakReference<ExploredChunkDeltaLog> cursorLog;
+    private ExploredChunkDeltaLog.Cursor cursor;
+
+    /**
+     * Creates a window with the default hysteresis.
+     */
+    public NearestMapChunkWindow() {
+        this(DEFAULT_HYSTERESIS);
+    }
+
+    /**
+     * Creates a window.
+     *
+     * @param hysteresis Extra radius in map chunks before a chunk is removed.
+     */
+    public NearestMapChunkWindow(int hysteresis) {
+        this.hysteresis = Math.max(0, hysteresis);
+        this.positions.defaultReturnValue(-1);
+    }
+
+    /**
+     * Moves the window to a new center using a player's explored chunks, incrementally when possible.
+     *
+     * @param source   The player's explored chunks.
+     * @param centerX  Center map chunk X.
+     * @param centerZ  Center map chunk Z.
+     * @param limit    The maximum number of map chunks.
+     * @param onAdd    Receives each map chunk entering the window.
+     * @param onRemove Receives each map chunk leaving the window.
+     * @return True if the window was fully recomputed.
+     */
+    public boolean update(@Nonnull ExploredChunksTracker source, int centerX, int centerZ, int limit,
+                          @Nonnull LongConsumer onAdd, @Nonnull LongConsumer onRemove) {
+        ExploredChunkDeltaLog log = source.getNewlyExplored();
+
+        if (!tracking || cursorLog.get() != log || limit != this.limit || !isSmallStep(centerX, centerZ)) {
+            return recomputeTracking(source, log, centerX, centerZ, limit, onAdd, onRemove);
+        }
+
+        recentStart = order.size();
+        boolean drained = log.drain(cursor, worldChunk -> {
+            int mapX = ChunkUtil.indexToChunkX(worldChunk) >> 1;
+            int mapZ = ChunkUtil.indexToChunkZ(worldChunk) >> 1;
+            if (!bounded || distanceSq(mapX, mapZ, centerX, centerZ) <= radiusSq) {
+                add(ChunkUtil.chunkCoordsToIndex(mapX, mapZ), onAdd);
+            }
+        });
+        if (!drained) {
+            return recomputeTracking(source, log, centerX, centerZ, limit, onAdd, onRemove);
+        }
+
+        if (bounded && (centerX != this.centerX || centerZ != this.centerZ)) {
+            MapChunkIndex.View index = source.getMapChunks();
+            int oldX = this.centerX;
+            int oldZ = this.centerZ;
+            forEachInDifference(centerX, centerZ, radiusSq, oldX, oldZ, radiusSq, (x, z) -> {
+                if (index.getCount(x, z) > 0) {
+                    add(ChunkUtil.chunkCoordsToIndex(x, z), onAdd);
+                }
+            });
+            forEachInDifference(oldX, oldZ, outerSq, centerX, centerZ, outerSq,
+                    (x, z) -> remove(ChunkUtil.chunkCoordsToIndex(x, z), onRemove));
+        }
+        this.centerX = centerX;
+        this.centerZ = centerZ;
+
+        int size = positions.size();
+        if (size > limit) {
+            return recomputeTracking(source, log, centerX, centerZ, limit, onAdd, onRemove);
+        }
+        int fill = fillTarget(limit);
+        if (bounded && size < fill - (limit >> 3) && source.getMapChunks().size() > size) {
+            return recomputeTracking(source, log, centerX, centerZ, limit, onAdd, onRemove);
+        }
+
+        sortRecentByDistance();
+        compactIfNeeded();
+        return false;
+    }
+
+    /**
+     * Recomputes the window from an index. The window stops following any delta log,
+     * so the next {@link #update} call recomputes again.
+     *
+     * @param index    The map-chunk index.
+     * @param centerX  Center map chunk X.
+     * @param centerZ  Center map chunk Z.
+     * @param limit    The maximum number of map chunks.
+     * @param onAdd    Receives each map chunk entering the window.
+     * @param onRemove Receives each map chunk leaving the window.
+     */
+    public void recompute(@Nonnull MapChunkIndex.View index, int centerX, int centerZ, int limit,
+                          @Nonnull LongConsumer onAdd, @Nonnull LongConsumer onRemove) {
+        tracking = false;
+        rebuild(index, centerX, centerZ, limit, onAdd, onRemove);
+    }
+
+    /**
+     * Checks if a map chunk is in the window.
+     *
+     * @param mapChunk Packed map chunk index ({@link ChunkUtil#chunkCoordsToIndex(int, int)}).
+     * @return True if in the window.
+     */
+    public boolean contains(long mapChunk) {
+        return positions.containsKey(mapChunk);
+    }
+
+    /**
+     * Gets the number of map chunks in the window.
+     *
+     * @return The window size.
+     */
+    public int size() {
+        return positions.size();
+    }
+
+    /**
+     * Visits the window, starting with the chunks added by the last update (nearest first),
+     * followed by the rest in the order they entered.
+     *
+     * @param action The consumer receiving each packed map chunk index.
+     */
+    public void forEachOrdered(@Nonnull LongConsumer action) {
+        for (int i = recentStart; i < order.size(); i++) {
+            visitIfCurrent(i, action);
+        }
+        for (int i = 0; i < recentStart; i++) {
+            visitIfCurrent(i, action);
+        }
+    }
+
+    /**
+     * Empties the window without emitting deltas.
+     */
+    public void reset() {
+        positions.clear();
+        order.clear();
+        recentStart = 0;
+        tracking = false;
+        limit = -1;
+        releaseCursor();
+    }
+
+    private void releaseCursor() {
+        ExploredChunkDeltaLog log = cursorLog != null ? cursorLog.get() : null;
+        if (log != null) {
+            log.release(cursor);
+        }
+        cursorLog = null;
+        cursor = null;
+    }
+
+    private boolean recomputeTracking(ExploredChunksTracker source, ExploredChunkDeltaLog log,
+                                      int centerX, int centerZ, int limit,
+                                      LongConsumer onAdd, LongConsumer onRemove) {
+        // Move the cursor before the snapshot: anything appended after it is drained next time.
+        if (cursorLog != null && cursorLog.get() == log) {
+            log.reset(cursor);
+        } else {
+            releaseCursor();
+            cursorLog = new WeakReference<>(log);
+            cursor = log.register();
+        }
+        rebuild(source.getMapChunks(), centerX, centerZ, limit, onAdd, onRemove);
+        tracking = true;
+        return true;
+    }
+
+    private void rebuild(MapChunkIndex.View index, int centerX, int centerZ, int limit,
+                         LongConsumer onAdd, LongConsumer onRemove) {
+        int fill = fillTarget(limit);
+        long[] nearest = index.nearest(centerX, centerZ, fill);
+
+        Long2IntOpenHashMap previous = positions.clone();
+        positions.clear();
+        order.clear();
+        for (long chunk : nearest) {
+            positions.put(chunk, order.size());
+            order.add(chunk);
+            if (previous.remove(chunk) == -1) {
+                onAdd.accept(chunk);
+            }
+        }
+        previous.keySet().forEach(onRemove);
+
+        this.centerX = centerX;
+        this.centerZ = centerZ;
+        this.limit = limit;
+        this.recentStart = 0;
+        this.bounded = nearest.length >= fill && fill > 0;
+        if (bounded) {
+            long last = nearest[nearest.length - 1];
+            long lastSq = distanceSq(ChunkUtil.indexToChunkX(last), ChunkUtil.indexToChunkZ(last), centerX, centerZ);
+            // Ties with the farthest chunk may have been cut off, so only strictly closer chunks are guaranteed.
+            this.radiusSq = lastSq - 1;
+            long outer = (long) Math.ceil(Math.sqrt(lastSq)) + hysteresis;
+            this.outerSq = outer * outer;
+        }
+    }
+
+    /**
+     * Gets how many map chunks a recompute takes, leaving room below the limit for chunks
+     * added incrementally.
+     */
+    private static int fillTarget(int limit) {
+        return limit - (limit >> 3);
+    }
+
+    private boolean isSmallStep(int centerX, int centerZ) {
+        int stepX = Math.abs(centerX - this.centerX);
+        int stepZ = Math.abs(centerZ - this.centerZ);
+        if (stepX > MAX_INCREMENTAL_STEP || stepZ > MAX_INCREMENTAL_STEP) {
+            return false;
+        }
+        if (!bounded) {
+            return true;
+        }
+        // Both crescents together cover about 4 * outerRadius * step cells; past the limit a recompute is cheaper.
+        long ringCells = 4 * (isqrt(outerSq) + 1) * (stepX + stepZ);
+        return ringCells <= limit;
+    }
+
+    private void add(long chunk, LongConsumer onAdd) {
+        if (positions.putIfAbsent(chunk, order.size()) == -1) {
+            order.add(chunk);
+            onAdd.accept(chunk);
+        }
+    }
+
+    private void remove(long chunk, LongConsumer onRemove) {
+        if (positions.remove(chunk) != -1) {
+            onRemove.accept(chunk);
+        }
+    }
+
+    private void visitIfCurrent(int position, LongConsumer action) {
+        long chunk = order.getLong(position);
+        if (positions.get(chunk) == position) {
+            action.accept(chunk);
+        }
+    }
+
+    private void sortRecentByDistance() {
+        int from = recentStart;
+        int to = order.size();
+        if (to - from < 2) {
+            return;
+        }
+        long[] elements = order.elements();
+        LongArrays.quickSort(elements, from, to, (a, b) -> Long.compare(
+                distanceSq(ChunkUtil.indexToChunkX(a), ChunkUtil.indexToChunkZ(a), centerX, centerZ),
+                distanceSq(ChunkUtil.indexToChunkX(b), ChunkUtil.indexToChunkZ(b), centerX, centerZ)));
+        for (int i = from; i < to; i++) {
+            positions.put(elements[i], i);
+        }
+    }
+
+    /**
+     * Drops stale order entries once they make up more than half of the list.
+     */
+    private void compactIfNeeded() {
+        if (order.size() <= (positions.size() << 1) + 64) {
+            return;
+        }
+        LongArrayList compacted = new LongArrayList(positions.size());
+        int newRecentStart = -1;
+        for (int i = 0; i < order.size(); i++) {
+            if (i == recentStart) {
+                newRecentStart = compacted.size();
+            }
+            long chunk = order.getLong(i);
+            if (positions.get(chunk) == i) {
+                positions.put(chunk, compacted.size());
+                compacted.add(chunk);
+            }
+        }
+        order.clear();
+        order.addAll(compacted);
+        recentStart = newRecentStart == -1 ? order.size() : newRecentStart;
+    }
+
+    /**
+     * Visits the cells within {@code aSq} of center A that are not within {@code bSq} of center B.
+     */
+    private static void forEachInDifference(int ax, int az, long aSq, int bx, int bz, long bSq, CellConsumer action) {
+        if (aSq < 0) {
+            return;
+        }
+        long ra = isqrt(aSq);
+        for (long x = ax - ra; x <= ax + ra; x++) {
+            long dxa = x - ax;
+            long ha = isqrt(aSq - dxa * dxa);
+            long minZ = az - ha;
+            long maxZ = az + ha;
+
+            long dxb = x - bx;
+            if (bSq < 0 || dxb * dxb > bSq) {
+                emitColumn(x, minZ, maxZ, action);
+                continue;
+            }
+            long hb = isqrt(bSq - dxb * dxb);
+            emitColumn(x, minZ, Math.min(maxZ, bz - hb - 1), action);
+            emitColumn(x, Math.max(minZ, bz + hb + 1), maxZ, action);
+        }
+    }
+
+    private static void emitColumn(long x, long minZ, long maxZ, CellConsumer action) {
+        for (long z = minZ; z <= maxZ; z++) {
+            action.accept((int) x, (int) z);
+        }
+    }
+
+    private static long distanceSq(int x, int z, int centerX, int centerZ) {
+        long dx = (long) x - centerX;
+        long dz = (long) z - centerZ;
+        return dx * dx + dz * dz;
+    }
+
+    private static long isqrt(long value) {
+        long root = (long) Math.sqrt((double) value);
+        while (root * root > value) {
+            root--;
+        }
+        while ((root + 1) * (root + 1) <= value) {
+            root++;
+        }
+        return root;
+    }
+
+    @FunctionalInterface
+    private interface CellConsumer {
+        void accept(int x, int z);
+    }
+}
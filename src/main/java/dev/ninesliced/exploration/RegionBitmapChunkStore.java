@@ -0,0 +1,283 @@
+package dev.ninesliced.exploration;
+
+import dev.ninesliced.utils.ChunkUtil;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import javax.annotation.Nonnull;
+import java.util.function.LongConsumer;
+
+/**
+ * Explored chunk store that pages chunks into fixed-size square regions,
+ * keeping one bit per chunk. A fully explored region costs 128 bytes for
+ * 1024 chunks, and membership checks are a region lookup plus a shift-and-mask.
+ * <p>
+ * Snapshots share region pages with the store. Each page remembers the epoch it
+ * was written in, and the first write to a page after a snapshot copies it.
+ */
+public class RegionBitmapChunkStore implements ExploredChunkStore {
+    /**
+     * Log2 of the region side length in chunks.
+     */
+    public static final int REGION_SHIFT = 5;
+    /**
+     * Region side length in chunks.
+     */
+    public static final int REGION_SIZE = 1 << REGION_SHIFT;
+    /**
+     * Number of 64-bit words holding one region's bits.
+     */
+    public static final int WORDS_PER_REGION = (REGION_SIZE * REGION_SIZE) >> 6;
+
+    private static final int LOCAL_MASK = REGION_SIZE - 1;
+
+    private final Long2ObjectOpenHashMap<Region> regions = new Long2ObjectOpenHashMap<>();
+    private int count;
+    private int epoch;
+
+    private long lastRegionKey;
+    private Region lastRegion;
+
+    @Override
+    public boolean mark(long chunkIndex) {
+        int chunkX = ChunkUtil.indexToChunkX(chunkIndex);
+        int chunkZ = ChunkUtil.indexToChunkZ(chunkIndex);
+        long regionKey = regionKey(chunkX, chunkZ);
+
+        Region region = lastRegion;
+        if (region == null || lastRegionKey != regionKey) {
+            region = regions.get(regionKey);
+            if (region == null) {
+                region = new Region(epoch);
+                regions.put(regionKey, region);
+            }
+            lastRegionKey = regionKey;
+            lastRegion = region;
+        }
+
+        int bit = bitIndex(chunkX, chunkZ);
+        long mask = 1L << bit;
+        long word = region.words[bit >> 6];
+        if ((word & mask) != 0) {
+            return false;
+        }
+
+        if (region.epoch != epoch) {
+            region = region.copy(epoch);
+            regions.put(regionKey, region);
+            lastRegion = region;
+        }
+
+        region.words[bit >> 6] = word | mask;
+        region.count++;
+        count++;
+        return true;
+    }
+
+    @Override
+    public boolean isExplored(long chunkIndex) {
+        int chunkX = ChunkUtil.indexToChunkX(chunkIndex);
+        int chunkZ = ChunkUtil.indexToChunkZ(chunkIndex);
+
+        return isSet(findRegion(regionKey(chunkX, chunkZ)), chunkX, chunkZ);
+    }
+
+    @Override
+    public int count() {
+        return count;
+    }
+
+    @Override
+    public void forEach(@Nonnull LongConsumer action) {
+        forEachRegion(regions, action);
+    }
+
+    @Override
+    public void forEachInRange(int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ, @Nonnull LongConsumer action) {
+        forEachRegionInRange(regions, minChunkX, minChunkZ, maxChunkX, maxChunkZ, action);
+    }
+
+    @Override
+    public void clear() {
+        regions.clear();
+        count = 0;
+        lastRegion = null;
+    }
+
+    /**
+     * Shares every region page with the snapshot and bumps the epoch, so the
+     * next write to any shared page copies it first. Costs O(regions).
+     *
+     * @return The snapshot view.
+     */
+    @Nonnull
+    @Override
+    public ExploredChunkView snapshot() {
+        Snapshot snapshot = new Snapshot(new Long2ObjectOpenHashMap<>(regions), count);
+        epoch++;
+        return snapshot;
+    }
+
+    /**
+     * Gets the number of allocated regions.
+     *
+     * @return The region count.
+     */
+    public int getRegionCount() {
+        return regions.size();
+    }
+
+    /**
+     * Looks up a region, checking the last written region first.
+     * Does not update the cache so concurrent readers never write to the store.
+     */
+    private Region findRegion(long regionKey) {
+        Region region = lastRegion;
+        if (region != null && lastRegionKey == regionKey) {
+            return region;
+        }
+        return regions.get(regionKey);
+    }
+
+    /**
+     * Packs the region coordinates containing a chunk into a region key.
+     *
+     * @param chunkX Chunk X.
+     * @param chunkZ Chunk Z.
+     * @return The region key.
+     */
+    public static long regionKey(int chunkX, int chunkZ) {
+        return ChunkUtil.chunkCoordsToIndex(chunkX >> REGION_SHIFT, chunkZ >> REGION_SHIFT);
+    }
+
+    private static int bitIndex(int chunkX, int chunkZ) {
+        return ((chunkZ & LOCAL_MASK) << REGION_SHIFT) | (chunkX & LOCAL_MASK);
+    }
+
+    private static boolean isSet(Region region, int chunkX, int chunkZ) {
+        if (region == null) {
+            return false;
+        }
+        int bit = bitIndex(chunkX, chunkZ);
+        return (region.words[bit >> 6] & (1L << bit)) != 0;
+    }
+
+    private static void forEachRegion(Long2ObjectOpenHashMap<Region> regions, LongConsumer action) {
+        for (Long2ObjectOpenHashMap.Entry<Region> entry : regions.long2ObjectEntrySet()) {
+            forEachInRegion(entry.getLongKey(), entry.getValue(), action);
+        }
+    }
+
+    private static void forEachRegionInRange(Long2ObjectOpenHashMap<Region> regions,
+                                             int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ,
+                                             LongConsumer action) {
+        int minRegionX = minChunkX >> REGION_SHIFT;
+        int minRegionZ = minChunkZ >> REGION_SHIFT;
+        int maxRegionX = maxChunkX >> REGION_SHIFT;
+        int maxRegionZ = maxChunkZ >> REGION_SHIFT;
+        long rangeRegions = ((long) maxRegionX - minRegionX + 1) * ((long) maxRegionZ - minRegionZ + 1);
+
+        LongConsumer filtered = chunk -> {
+            int x = ChunkUtil.indexToChunkX(chunk);
+            int z = ChunkUtil.indexToChunkZ(chunk);
+            if (x >= minChunkX && x <= maxChunkX && z >= minChunkZ && z <= maxChunkZ) {
+                action.accept(chunk);
+            }
+        };
+
+        if (rangeRegions <= regions.size()) {
+            for (int rx = minRegionX; rx <= maxRegionX; rx++) {
+                for (int rz = minRegionZ; rz <= maxRegionZ; rz++) {
+                    long regionKey = ChunkUtil.chunkCoordsToIndex(rx, rz);
+                    Region region = regions.get(regionKey);
+                    if (region != null) {
+                        forEachInRegion(regionKey, region, filtered);
+                    }
+                }
+            }
+            return;
+        }
+
+        for (Long2ObjectOpenHashMap.Entry<Region> entry : regions.long2ObjectEntrySet()) {
+            long regionKey = entry.getLongKey();
+            int rx = ChunkUtil.indexToChunkX(regionKey);
+            int rz = ChunkUtil.indexToChunkZ(regionKey);
+            if (rx >= minRegionX && rx <= maxRegionX && rz >= minRegionZ && rz <= maxRegionZ) {
+                forEachInRegion(regionKey, entry.getValue(), filtered);
+            }
+        }
+    }
+
+    private static void forEachInRegion(long regionKey, Region region, LongConsumer action) {
+        int baseX = ChunkUtil.indexToChunkX(regionKey) << REGION_SHIFT;
+        int baseZ = ChunkUtil.indexToChunkZ(regionKey) << REGION_SHIFT;
+        long[] words = region.words;
+
+        for (int w = 0; w < WORDS_PER_REGION; w++) {
+            long word = words[w];
+            while (word != 0) {
+                int bit = (w << 6) | Long.numberOfTrailingZeros(word);
+                action.accept(ChunkUtil.chunkCoordsToIndex(baseX + (bit & LOCAL_MASK), baseZ + (bit >> REGION_SHIFT)));
+                word &= word - 1;
+            }
+        }
+    }
+
+    /**
+     * A single bitmap page covering {@link #REGION_SIZE} x {@link #REGION_SIZE} chunks.
+     */
+    static final class Region {
+        final long[] words;
+        final int epoch;
+        int count;
+
+        Region(int epoch) {
+            this.words = new long[WORDS_PER_REGION];
+            this.epoch = epoch;
+        }
+
+        private Region(Region source, int epoch) {
+            this.words = source.words.clone();
+            this.epoch = epoch;
+            this.count = source.count;
+        }
+
+        Region copy(int epoch) {
+            return new Region(this, epoch);
+        }
+    }
+
+    /**
+     * Immutable view over region pages shared with the store at snapshot time.
+     */
+    private static final class Snapshot implements ExploredChunkView {
+        private final Long2ObjectOpenHashMap<Region> regions;
+        private final int count;
+
+        private Snapshot(Long2ObjectOpenHashMap<Region> regions, int count) {
+            this.regions = regions;
+            this.count = count;
+        }
+
+        @Override
+        public boolean isExplored(long chunkIndex) {
+            int chunkX = ChunkUtil.indexToChunkX(chunkIndex);
+            int chunkZ = ChunkUtil.indexToChunkZ(chunkIndex);
+            return isSet(regions.get(regionKey(chunkX, chunkZ)), chunkX, chunkZ);
+        }
+
+        @Override
+        public int count() {
+            return count;
+        }
+
+        @Override
+        public void forEach(@Nonnull LongConsumer action) {
+            forEachRegion(regions, action);
+        }
+
+        @Override
+        public void forEachInRange(int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ, @Nonnull LongConsumer action) {
+            forEachRegionInRange(regions, minChunkX, minChunkZ, maxChunkX, maxChunkZ, action);
+        }
+    }
+}
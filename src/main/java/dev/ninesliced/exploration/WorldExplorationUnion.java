@@ -0,0 +1,99 @@
+package dev.ninesliced.exploration;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+import javax.annotation.Nonnull;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Live view of everything explored in one world, for shared exploration.
+ * <p>
+ * It wraps the world's saved union rather than copying it, and layers the chunks online
+ * players explored since their last save on top by following each player's
+ * {@link ExploredChunkDeltaLog}. A refresh therefore costs the number of chunks explored
+ * since the previous one rather than the size of the world's map. Readers get immutable
+ * snapshots and never block the refresh.
+ */
+public class WorldExplorationUnion {
+    private final ExploredChunksTracker union;
+    private Map<ExploredChunkDeltaLog, ExploredChunkDeltaLog.Cursor> cursors = new IdentityHashMap<>();
+    private final LongArrayList delta = new LongArrayList();
+
+    /**
+     * Creates a view over a world's union.
+     *
+     * @param union The world's resident union, shared with persistence.
+     */
+    public WorldExplorationUnion(@Nonnull ExploredChunksTracker union) {
+        this.union = union;
+    }
+
+    /**
+     * Merges what the given players explored since the previous refresh.
+     * Players seen for the first time, or whose log overflowed, are merged in full.
+     *
+     * @param contributors The explored chunks of the players currently in the world.
+     */
+    public synchronized void refresh(@Nonnull Iterable<ExploredChunksTracker> contributors) {
+        Map<ExploredChunkDeltaLog, ExploredChunkDeltaLog.Cursor> previous = cursors;
+        cursors = new IdentityHashMap<>();
+        for (ExploredChunksTracker contributor : contributors) {
+            ExploredChunkDeltaLog log = contributor.getNewlyExplored();
+            ExploredChunkDeltaLog.Cursor cursor = previous.remove(log);
+            if (cursor == null) {
+                cursor = cursors.get(log);
+            }
+
+            if (cursor != null) {
+                cursors.put(log, cursor);
+                delta.clear();
+                if (log.drain(cursor, delta::add)) {
+                    if (!delta.isEmpty()) {
+                        union.markChunksExplored(delta.toLongArray());
+                    }
+                    continue;
+                }
+                // Reset before the snapshot so nothing marked in between is missed.
+                log.reset(cursor);
+            } else {
+                cursors.put(log, log.register());
+            }
+            union.markChunksExplored(contributor.snapshot().toLongArray());
+        }
+
+        // Players who left no longer hold entries in their logs.
+        previous.forEach(ExploredChunkDeltaLog::release);
+    }
+
+    /**
+     * Gets an immutable snapshot of the union.
+     *
+     * @return The explored chunks of the world.
+     */
+    @Nonnull
+    public ExploredChunkView snapshot() {
+        return union.snapshot();
+    }
+
+    /**
+     * Gets the union at map-chunk granularity.
+     *
+     * @return The map-chunk index view.
+     */
+    @Nonnull
+    public MapChunkIndex.View getMapChunks() {
+        return union.getMapChunks();
+    }
+
+    /**
+     * Gets the tracker backing the union, for consumers that follow its delta log such as
+     * {@link NearestMapChunkWindow}. Callers must not mark chunks through it.
+     *
+     * @return The union tracker.
+     */
+    @Nonnull
+    public ExploredChunksTracker getTracker() {
+        return union;
+    }
+}
@@ -21,7 +21,6 @@ import dev.ninesliced.managers.ExplorationManager;
 import dev.ninesliced.managers.PlayerConfigManager;
 import dev.ninesliced.managers.PlayerRadarManager;
 import dev.ninesliced.managers.WaypointManager;
-import dev.ninesliced.utils.ReflectionHelper;
 import dev.ninesliced.utils.WorldMapHook;
 
 import javax.annotation.Nonnull;
@@ -234,7 +233,7 @@ public class ExplorationEventListener {
 
                     try {
                         if (finalTracker != null) {
-                            ReflectionHelper.setFieldValueRecursive(finalTracker, "updateTimer", 0.0f);
+                            WorldMapHook.resetUpdateTimer(finalTracker);
                         }
                     } catch (Exception e) {
                         LOGGER.fine("[DEBUG] Could not reset updateTimer: " + e.getMessage());
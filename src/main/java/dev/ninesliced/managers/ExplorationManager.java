@@ -1,16 +1,20 @@
 package dev.ninesliced.managers;
 
+import com.hypixel.hytale.server.core.command.system.CommandSender;
 import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.universe.Universe;
 import dev.ninesliced.configs.ExplorationPersistence;
 import dev.ninesliced.exploration.ExplorationTracker;
+import dev.ninesliced.exploration.ExploredChunkView;
+import dev.ninesliced.exploration.ExploredChunksTracker;
+import dev.ninesliced.exploration.WorldExplorationUnion;
 import dev.ninesliced.configs.BetterMapConfig;
 
 import javax.annotation.Nonnull;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Map;
 import java.util.UUID;
 import java.util.logging.Logger;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -33,6 +37,8 @@ public class ExplorationManager {
 
     private String persistencePath = "universe/exploration_data";
 
+    private final Map<String, WorldExplorationUnion> worldUnions = new ConcurrentHashMap<>();
+
     private final ScheduledExecutorService autoSaveScheduler = Executors.newSingleThreadScheduledExecutor();
     private ScheduledFuture<?> autoSaveTask;
 
@@ -147,30 +153,61 @@ public class ExplorationManager {
     }
 
     /**
-     * Gets all explored chunks for a given world, combining persistence and active data.
+     * Loads a lazily loaded player's deferred exploration regions that came within map reach.
+     * Does nothing unless lazy loading is enabled and the player still has deferred regions.
      *
+     * @param player    The player.
      * @param worldName The world name.
-     * @return A set of all explored chunks.
+     * @param chunkX    The player's chunk X.
+     * @param chunkZ    The player's chunk Z.
      */
-    public java.util.Set<Long> getAllExploredChunks(String worldName) {
-        Set<Long> allChunks = new HashSet<>();
-
-        if (persistenceEnabled) {
-            allChunks.addAll(persistence.loadAllChunks(worldName));
+    public void loadExplorationNear(@Nonnull Player player, @Nonnull String worldName, int chunkX, int chunkZ) {
+        if (!persistenceEnabled || persistence == null || !BetterMapConfig.getInstance().isLazyExplorationLoading()) {
+            return;
+        }
+        ExplorationTracker.PlayerExplorationData data = ExplorationTracker.getInstance().getPlayerData(player);
+        UUID uuid = ((CommandSender) player).getUuid();
+        if (data != null && uuid != null) {
+            persistence.loadRegionsNear(player.getDisplayName(), uuid, worldName, data.getExploredChunks(), chunkX, chunkZ);
         }
+    }
 
-        Universe universe = Universe.get();
-        if (universe != null) {
-            for (ExplorationTracker.PlayerExplorationData data : ExplorationTracker.getInstance().getAllPlayerDataSnapshot().values()) {
-                String dataWorld = data.getWorldName();
-                if (dataWorld == null || !dataWorld.equals(worldName)) {
-                    continue;
-                }
-                allChunks.addAll(data.getExploredChunks().getExploredChunks());
-            }
+    /**
+     * Gets all explored chunks for a given world, combining persistence and active data.
+     *
+     * @param worldName The world name.
+     * @return A read-only view of all explored chunks.
+     */
+    @Nonnull
+    public ExploredChunkView getAllExploredChunks(String worldName) {
+        return getWorldUnion(worldName).snapshot();
+    }
+
+    /**
+     * Gets the resident exploration union of a world. This is a map lookup; the union is
+     * kept current by {@link #refreshWorldUnion(String, Iterable)} on the ticker and by saves.
+     *
+     * @param worldName The world name.
+     * @return The world's union.
+     */
+    @Nonnull
+    public WorldExplorationUnion getWorldUnion(String worldName) {
+        WorldExplorationUnion union = worldUnions.get(worldName);
+        if (union != null) {
+            return union;
         }
+        return worldUnions.computeIfAbsent(worldName, name -> new WorldExplorationUnion(
+                persistenceEnabled ? persistence.getUnion(name) : new ExploredChunksTracker(null)));
+    }
 
-        return allChunks;
+    /**
+     * Merges what the given players explored since the previous refresh into their world's union.
+     *
+     * @param worldName    The world name.
+     * @param contributors The explored chunks of the players currently in the world.
+     */
+    public void refreshWorldUnion(String worldName, @Nonnull Iterable<ExploredChunksTracker> contributors) {
+        getWorldUnion(worldName).refresh(contributors);
     }
 
     /**
@@ -181,7 +218,11 @@ public class ExplorationManager {
             LOGGER.info("Shutting down Exploration System...");
             stopAutoSave();
             autoSaveScheduler.shutdown();
+            if (persistence != null) {
+                persistence.shutdown();
+            }
             ExplorationTracker.getInstance().clear();
+            worldUnions.clear();
             LOGGER.info("Exploration System shutdown complete");
         } catch (Exception e) {
             LOGGER.severe("Error during exploration system shutdown: " + e.getMessage());
@@ -219,7 +260,8 @@ public class ExplorationManager {
         if (!persistenceEnabled) return;
 
         persistence.saveAllPlayers();
-        LOGGER.info("Auto-saved exploration data for all players.");
+        LOGGER.info("Auto-saved exploration data for all players (save queue: " + persistence.getSaveQueue().describe()
+                + ", load queue: " + persistence.getLoadQueue().describe() + ").");
     }
 
     /**
@@ -1,6 +1,7 @@
 package dev.ninesliced.managers;
 
 import dev.ninesliced.exploration.ExploredChunksTracker;
+import dev.ninesliced.utils.ChunkStencil;
 import dev.ninesliced.utils.ChunkUtil;
 
 import javax.annotation.Nonnull;
@@ -17,6 +18,9 @@ public class MapExpansionManager {
     private int maxChunkX = Integer.MIN_VALUE;
     private int minChunkZ = Integer.MAX_VALUE;
     private int maxChunkZ = Integer.MIN_VALUE;
+    private int lastCenterX;
+    private int lastCenterZ;
+    private int lastRadius = -1;
 
     /**
      * Constructs the manager with a reference to the chunk tracker.
@@ -36,9 +40,20 @@ public class MapExpansionManager {
      * @param viewRadius   Radius of view.
      */
     public void updateBoundaries(int playerChunkX, int playerChunkZ, int viewRadius) {
-        Set<Long> newChunks = ChunkUtil.getChunksInCircularArea(playerChunkX, playerChunkZ, viewRadius);
+        if (viewRadius < 0) {
+            return;
+        }
+        exploredChunks.markChunksExplored(playerChunkX, playerChunkZ, ChunkStencil.disk(viewRadius));
+        expandBoundaries(playerChunkX, playerChunkZ, viewRadius);
+    }
 
-        for (long chunkIndex : newChunks) {
+    /**
+     * Grows the boundaries to include already explored chunks, without marking them.
+     *
+     * @param chunkIndices The chunk indices.
+     */
+    public void includeChunks(@Nonnull long[] chunkIndices) {
+        for (long chunkIndex : chunkIndices) {
             int chunkX = ChunkUtil.indexToChunkX(chunkIndex);
             int chunkZ = ChunkUtil.indexToChunkZ(chunkIndex);
 
@@ -47,8 +62,53 @@ public class MapExpansionManager {
             minChunkZ = Math.min(minChunkZ, chunkZ);
             maxChunkZ = Math.max(maxChunkZ, chunkZ);
         }
+    }
+
+    /**
+     * Grows the boundaries to include a rectangle of chunks, such as a stored bounding box.
+     *
+     * @param minChunkX Min chunk X.
+     * @param maxChunkX Max chunk X.
+     * @param minChunkZ Min chunk Z.
+     * @param maxChunkZ Max chunk Z.
+     */
+    public void includeBounds(int minChunkX, int maxChunkX, int minChunkZ, int maxChunkZ) {
+        this.minChunkX = Math.min(this.minChunkX, minChunkX);
+        this.maxChunkX = Math.max(this.maxChunkX, maxChunkX);
+        this.minChunkZ = Math.min(this.minChunkZ, minChunkZ);
+        this.maxChunkZ = Math.max(this.maxChunkZ, maxChunkZ);
+    }
+
+    /**
+     * Explores the circle around the player, marking only the chunks that entered it since the last call.
+     * A one-chunk step with an unchanged radius uses a precomputed leading-edge stencil;
+     * larger moves, teleports and radius changes fall back to the full circle.
+     *
+     * @param playerChunkX Player chunk X.
+     * @param playerChunkZ Player chunk Z.
+     * @param viewRadius   Radius of view.
+     */
+    public void exploreAround(int playerChunkX, int playerChunkZ, int viewRadius) {
+        int stepX = playerChunkX - lastCenterX;
+        int stepZ = playerChunkZ - lastCenterZ;
+
+        if (lastRadius != viewRadius || stepX < -1 || stepX > 1 || stepZ < -1 || stepZ > 1) {
+            updateBoundaries(playerChunkX, playerChunkZ, viewRadius);
+        } else if (stepX != 0 || stepZ != 0) {
+            exploredChunks.markChunksExplored(playerChunkX, playerChunkZ, ChunkStencil.leadingEdge(stepX, stepZ, viewRadius));
+            expandBoundaries(playerChunkX, playerChunkZ, viewRadius);
+        }
+
+        lastCenterX = playerChunkX;
+        lastCenterZ = playerChunkZ;
+        lastRadius = viewRadius;
+    }
 
-        exploredChunks.markChunksExplored(newChunks);
+    private void expandBoundaries(int centerChunkX, int centerChunkZ, int radius) {
+        minChunkX = Math.min(minChunkX, centerChunkX - radius);
+        maxChunkX = Math.max(maxChunkX, centerChunkX + radius);
+        minChunkZ = Math.min(minChunkZ, centerChunkZ - radius);
+        maxChunkZ = Math.max(maxChunkZ, centerChunkZ + radius);
     }
 
     /**
@@ -100,6 +160,7 @@ public class MapExpansionManager {
         maxChunkX = Integer.MIN_VALUE;
         minChunkZ = Integer.MAX_VALUE;
         maxChunkZ = Integer.MIN_VALUE;
+        lastRadius = -1;
         exploredChunks.clear();
     }
 
@@ -14,13 +14,13 @@ import com.hypixel.hytale.server.core.universe.world.worldmap.WorldMapManager;
 import com.hypixel.hytale.server.core.universe.world.worldmap.markers.MapMarkerTracker;
 import dev.ninesliced.configs.BetterMapConfig;
 import dev.ninesliced.exploration.ExplorationTracker;
+import dev.ninesliced.exploration.ExploredChunkView;
 import dev.ninesliced.listeners.ExplorationEventListener;
 import dev.ninesliced.managers.ExplorationManager;
 import dev.ninesliced.utils.ChunkUtil;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Set;
 import java.util.logging.Logger;
 import javax.annotation.Nullable;
 
@@ -58,7 +58,7 @@ public class PoiPrivacyProvider implements WorldMapManager.MarkerProvider {
             }
 
             ExplorationTracker.PlayerExplorationData explorationData = null;
-            Set<Long> sharedExploredChunks = null;
+            ExploredChunkView sharedExploredChunks = null;
             if (hideUnexplored) {
                 if (config.isShareAllExploration()) {
                     sharedExploredChunks = ExplorationManager.getInstance().getAllExploredChunks(world.getName());
@@ -110,7 +110,7 @@ public class PoiPrivacyProvider implements WorldMapManager.MarkerProvider {
 
     private static boolean isMarkerExplored(MapMarker marker,
                                             @Nullable ExplorationTracker.PlayerExplorationData explorationData,
-                                            @Nullable Set<Long> sharedExploredChunks) {
+                                            @Nullable ExploredChunkView sharedExploredChunks) {
         Transform transform = marker.transform;
         if (transform == null || transform.position == null) {
             return true;
@@ -122,7 +122,7 @@ public class PoiPrivacyProvider implements WorldMapManager.MarkerProvider {
         long chunkIndex = ChunkUtil.chunkCoordsToIndex(chunkX, chunkZ);
 
         if (sharedExploredChunks != null) {
-            return sharedExploredChunks.contains(chunkIndex);
+            return sharedExploredChunks.isExplored(chunkIndex);
         }
 
         if (explorationData == null) {
@@ -17,11 +17,11 @@ import com.hypixel.hytale.server.core.universe.world.worldmap.markers.MapMarkerT
 import com.hypixel.hytale.server.core.util.PositionUtil;
 import dev.ninesliced.configs.BetterMapConfig;
 import dev.ninesliced.exploration.ExplorationTracker;
+import dev.ninesliced.exploration.ExploredChunkView;
 import dev.ninesliced.listeners.ExplorationEventListener;
 import dev.ninesliced.managers.ExplorationManager;
 import dev.ninesliced.utils.ChunkUtil;
 import java.util.Map;
-import java.util.Set;
 import java.util.logging.Logger;
 import javax.annotation.Nullable;
 
@@ -68,7 +68,7 @@ public class WarpPrivacyProvider implements WorldMapManager.MarkerProvider {
             }
 
             ExplorationTracker.PlayerExplorationData explorationData = null;
-            Set<Long> sharedExploredChunks = null;
+            ExploredChunkView sharedExploredChunks = null;
             if (hideUnexploredWarps) {
                 if (config.isShareAllExploration()) {
                     sharedExploredChunks = ExplorationManager.getInstance().getAllExploredChunks(world.getName());
@@ -133,13 +133,13 @@ public class WarpPrivacyProvider implements WorldMapManager.MarkerProvider {
 
     private static boolean isWarpExplored(Transform transform,
                                           @Nullable ExplorationTracker.PlayerExplorationData explorationData,
-                                          @Nullable Set<Long> sharedExploredChunks) {
+                                          @Nullable ExploredChunkView sharedExploredChunks) {
         int chunkX = ChunkUtil.blockToChunkCoord(transform.getPosition().x);
         int chunkZ = ChunkUtil.blockToChunkCoord(transform.getPosition().z);
         long chunkIndex = ChunkUtil.chunkCoordsToIndex(chunkX, chunkZ);
 
         if (sharedExploredChunks != null) {
-            return sharedExploredChunks.contains(chunkIndex);
+            return sharedExploredChunks.isExplored(chunkIndex);
         }
 
         if (explorationData == null) {
@@ -0,0 +1,177 @@
+package dev.ninesliced.utils;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Compact encoding for sets of chunk indices.
+ * <p>
+ * Indices are sorted and grouped into runs of consecutive values (consecutive Z within
+ * one X column). Each run is written as a varint gap from the end of the previous run
+ * followed by a varint run length, so a contiguous explored area costs a few bytes per
+ * column instead of 8 bytes per chunk.
+ * <p>
+ * Layout: format byte, varint chunk count, then for each run a varint gap and a varint
+ * length minus one. The first gap is the zigzag-encoded first index.
+ */
+public class ChunkRunEncoding {
+    /**
+     * Format byte for sorted varint delta runs.
+     */
+    public static final byte FORMAT_RUNS = 1;
+
+    /**
+     * Encodes chunk indices. The array is sorted in place.
+     *
+     * @param chunks The chunk indices; duplicates are dropped.
+     * @return The encoded bytes.
+     */
+    @Nonnull
+    public static byte[] encode(@Nonnull long[] chunks) {
+        Arrays.sort(chunks);
+
+        int unique = 0;
+        for (int i = 0; i < chunks.length; i++) {
+            if (i == 0 || chunks[i] != chunks[i - 1]) {
+                unique++;
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + unique / 4);
+        out.write(FORMAT_RUNS);
+        writeVarLong(out, unique);
+
+        int i = 0;
+        long previousEnd = 0;
+        boolean first = true;
+        while (i < chunks.length) {
+            long start = chunks[i];
+            long end = start;
+            i++;
+            while (i < chunks.length && (chunks[i] == end || chunks[i] == end + 1)) {
+                end = chunks[i];
+                i++;
+            }
+
+            if (first) {
+                writeVarLong(out, (start << 1) ^ (start >> 63));
+                first = false;
+            } else {
+                writeVarLong(out, start - previousEnd - 1);
+            }
+            writeVarLong(out, end - start);
+            previousEnd = end;
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes chunk indices, visiting them in ascending order.
+     *
+     * @param data   The encoded bytes.
+     * @param action The consumer receiving each chunk index.
+     * @return The number of decoded chunks.
+     * @throws IllegalArgumentException If the data is malformed.
+     */
+    public static int decode(@Nonnull byte[] data, @Nonnull LongConsumer action) {
+        if (data.length == 0 || data[0] != FORMAT_RUNS) {
+            throw new IllegalArgumentException("Unknown chunk encoding format");
+        }
+
+        int[] pos = {1};
+        long count = readVarLong(data, pos);
+        long decoded = 0;
+        long previousEnd = 0;
+        boolean first = true;
+
+        while (decoded < count) {
+            long gap = readVarLong(data, pos);
+            long start;
+            if (first) {
+                start = (gap >>> 1) ^ -(gap & 1);
+                first = false;
+            } else {
+                start = previousEnd + 1 + gap;
+            }
+
+            long length = readVarLong(data, pos) + 1;
+            if (length > count - decoded) {
+                throw new IllegalArgumentException("Chunk run exceeds declared count");
+            }
+            for (long n = 0; n < length; n++) {
+                action.accept(start + n);
+            }
+            decoded += length;
+            previousEnd = start + length - 1;
+        }
+
+        return (int) count;
+    }
+
+    /**
+     * Packs bytes into longs so they can travel through a long array codec.
+     * The first long holds the byte length, followed by the bytes in little-endian order.
+     *
+     * @param bytes The bytes.
+     * @return The packed longs.
+     */
+    @Nonnull
+    public static long[] packBytes(@Nonnull byte[] bytes) {
+        long[] packed = new long[1 + (bytes.length + 7) / 8];
+        packed[0] = bytes.length;
+        for (int i = 0; i < bytes.length; i++) {
+            packed[1 + (i >> 3)] |= (bytes[i] & 0xFFL) << ((i & 7) << 3);
+        }
+        return packed;
+    }
+
+    /**
+     * Reverses {@link #packBytes(byte[])}.
+     *
+     * @param packed The packed longs.
+     * @return The bytes.
+     * @throws IllegalArgumentException If the declared length does not fit the array.
+     */
+    @Nonnull
+    public static byte[] unpackBytes(@Nonnull long[] packed) {
+        if (packed.length == 0) {
+            return new byte[0];
+        }
+        long length = packed[0];
+        if (length < 0 || length > (long) (packed.length - 1) * 8) {
+            throw new IllegalArgumentException("Invalid packed byte length: " + length);
+        }
+        byte[] bytes = new byte[(int) length];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (packed[1 + (i >> 3)] >>> ((i & 7) << 3));
+        }
+        return bytes;
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(byte[] data, int[] pos) {
+        long value = 0;
+        int shift = 0;
+        while (true) {
+            if (pos[0] >= data.length || shift > 63) {
+                throw new IllegalArgumentException("Truncated varint");
+            }
+            byte b = data[pos[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package dev.ninesliced.utils;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed chunk offset stencils for circular exploration areas.
+ * Offsets are packed into a single int (see {@link #pack(int, int)}) so a stencil is a flat int array.
+ */
+public class ChunkStencil {
+    private static final Map<Integer, int[]> DISKS = new ConcurrentHashMap<>();
+    private static final Map<Integer, int[][]> LEADING_EDGES = new ConcurrentHashMap<>();
+    private static final int[] EMPTY = new int[0];
+
+    /**
+     * Packs a chunk offset into an int. Each component must fit in a signed 16-bit value.
+     *
+     * @param dx Offset X.
+     * @param dz Offset Z.
+     * @return Packed offset.
+     */
+    public static int pack(int dx, int dz) {
+        return (dx << 16) | (dz & 0xFFFF);
+    }
+
+    /**
+     * Extracts the X component of a packed offset.
+     *
+     * @param packed Packed offset.
+     * @return Offset X.
+     */
+    public static int offsetX(int packed) {
+        return packed >> 16;
+    }
+
+    /**
+     * Extracts the Z component of a packed offset.
+     *
+     * @param packed Packed offset.
+     * @return Offset Z.
+     */
+    public static int offsetZ(int packed) {
+        return (short) packed;
+    }
+
+    /**
+     * Gets the offsets of every chunk within a circle of the given radius.
+     * The result is cached and must not be modified.
+     *
+     * @param radius Circle radius in chunks.
+     * @return Packed offsets of the chunks inside the circle.
+     */
+    @Nonnull
+    public static int[] disk(int radius) {
+        if (radius < 0) {
+            return EMPTY;
+        }
+        return DISKS.computeIfAbsent(radius, ChunkStencil::computeDisk);
+    }
+
+    /**
+     * Gets the chunks that enter a circle of the given radius when its center moves by one step.
+     * Offsets are relative to the new center. The result is cached and must not be modified.
+     *
+     * @param stepX  Movement in X, between -1 and 1.
+     * @param stepZ  Movement in Z, between -1 and 1.
+     * @param radius Circle radius in chunks.
+     * @return Packed offsets of the newly covered chunks.
+     */
+    @Nonnull
+    public static int[] leadingEdge(int stepX, int stepZ, int radius) {
+        if (stepX < -1 || stepX > 1 || stepZ < -1 || stepZ > 1) {
+            throw new IllegalArgumentException("Step must be between -1 and 1: " + stepX + ", " + stepZ);
+        }
+        int[][] edges = LEADING_EDGES.computeIfAbsent(radius, ChunkStencil::computeLeadingEdges);
+        return edges[(stepX + 1) * 3 + (stepZ + 1)];
+    }
+
+    private static int[] computeDisk(int radius) {
+        int[] buffer = new int[(2 * radius + 1) * (2 * radius + 1)];
+        int size = 0;
+        long radiusSquared = (long) radius * radius;
+
+        for (int dx = -radius; dx <= radius; dx++) {
+            for (int dz = -radius; dz <= radius; dz++) {
+                if ((long) dx * dx + (long) dz * dz <= radiusSquared) {
+                    buffer[size++] = pack(dx, dz);
+                }
+            }
+        }
+
+        int[] disk = new int[size];
+        System.arraycopy(buffer, 0, disk, 0, size);
+        return disk;
+    }
+
+    private static int[][] computeLeadingEdges(int radius) {
+        int[][] edges = new int[9][];
+        int[] disk = disk(radius);
+        long radiusSquared = (long) radius * radius;
+
+        for (int stepX = -1; stepX <= 1; stepX++) {
+            for (int stepZ = -1; stepZ <= 1; stepZ++) {
+                if (stepX == 0 && stepZ == 0) {
+                    edges[(stepX + 1) * 3 + (stepZ + 1)] = EMPTY;
+                    continue;
+                }
+
+                int[] buffer = new int[disk.length];
+                int size = 0;
+                for (int offset : disk) {
+                    long ox = offsetX(offset) + stepX;
+                    long oz = offsetZ(offset) + stepZ;
+                    if (ox * ox + oz * oz > radiusSquared) {
+                        buffer[size++] = offset;
+                    }
+                }
+
+                int[] edge = new int[size];
+                System.arraycopy(buffer, 0, edge, 0, size);
+                edges[(stepX + 1) * 3 + (stepZ + 1)] = edge;
+            }
+        }
+        return edges;
+    }
+}
@@ -3,6 +3,7 @@ package dev.ninesliced.utils;
 import javax.annotation.Nonnull;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.function.LongConsumer;
 
 /**
  * Utility class for chunk coordinate calculations.
@@ -61,19 +62,26 @@ public class ChunkUtil {
      */
     @Nonnull
     public static Set<Long> getChunksInCircularArea(int centerChunkX, int centerChunkZ, int radiusChunks) {
-        Set<Long> chunks = new HashSet<>();
-
-        int radiusSquared = radiusChunks * radiusChunks;
+        int[] disk = ChunkStencil.disk(radiusChunks);
+        Set<Long> chunks = new HashSet<>(disk.length * 2);
+        forEachChunkInCircle(centerChunkX, centerChunkZ, radiusChunks, chunks::add);
+        return chunks;
+    }
 
-        for (int dx = -radiusChunks; dx <= radiusChunks; dx++) {
-            for (int dz = -radiusChunks; dz <= radiusChunks; dz++) {
-                if (dx * dx + dz * dz <= radiusSquared) {
-                    chunks.add(chunkCoordsToIndex(centerChunkX + dx, centerChunkZ + dz));
-                }
-            }
+    /**
+     * Visits every chunk index within a circular radius, using a cached stencil.
+     *
+     * @param centerChunkX Center chunk X.
+     * @param centerChunkZ Center chunk Z.
+     * @param radiusChunks Radius in chunks.
+     * @param action       The consumer receiving each chunk index.
+     */
+    public static void forEachChunkInCircle(int centerChunkX, int centerChunkZ, int radiusChunks, @Nonnull LongConsumer action) {
+        for (int offset : ChunkStencil.disk(radiusChunks)) {
+            action.accept(chunkCoordsToIndex(
+                    centerChunkX + ChunkStencil.offsetX(offset),
+                    centerChunkZ + ChunkStencil.offsetZ(offset)));
         }
-
-        return chunks;
     }
 
     /**
@@ -88,14 +96,25 @@ public class ChunkUtil {
     @Nonnull
     public static Set<Long> getChunksInRectangularArea(int minChunkX, int maxChunkX, int minChunkZ, int maxChunkZ) {
         Set<Long> chunks = new HashSet<>();
+        forEachChunkInRectangle(minChunkX, maxChunkX, minChunkZ, maxChunkZ, chunks::add);
+        return chunks;
+    }
 
+    /**
+     * Visits every chunk index within a rectangular area (inclusive).
+     *
+     * @param minChunkX Min X.
+     * @param maxChunkX Max X.
+     * @param minChunkZ Min Z.
+     * @param maxChunkZ Max Z.
+     * @param action    The consumer receiving each chunk index.
+     */
+    public static void forEachChunkInRectangle(int minChunkX, int maxChunkX, int minChunkZ, int maxChunkZ, @Nonnull LongConsumer action) {
         for (int x = minChunkX; x <= maxChunkX; x++) {
             for (int z = minChunkZ; z <= maxChunkZ; z++) {
-                chunks.add(chunkCoordsToIndex(x, z));
+                action.accept(chunkCoordsToIndex(x, z));
             }
         }
-
-        return chunks;
     }
 
     /**
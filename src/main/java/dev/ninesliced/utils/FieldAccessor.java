@@ -0,0 +1,153 @@
+package dev.ninesliced.utils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.logging.Logger;
+
+/**
+ * Resolved access to one field of a class, found once and reused on every call.
+ * <p>
+ * Reads and writes go through a {@link VarHandle}; final fields, which a handle can only
+ * read, are written through the reflected field. An accessor for a field that does not
+ * exist is still returned so callers can hold it in a constant: it reports itself absent,
+ * reads null and ignores writes. Obtain accessors from
+ * {@link ReflectionHelper#accessor(Class, String, Class)}.
+ *
+ * @param <T> The class declaring or inheriting the field.
+ * @param <V> The field's value type, boxed for primitives.
+ */
+public final class FieldAccessor<T, V> {
+
+    private static final Logger LOGGER = Logger.getLogger(FieldAccessor.class.getName());
+
+    private final String name;
+    @Nullable
+    private final Field field;
+    @Nullable
+    private final VarHandle handle;
+    private final boolean writable;
+
+    private FieldAccessor(@Nonnull String name, @Nullable Field field, @Nullable VarHandle handle) {
+        this.name = name;
+        this.field = field;
+        this.handle = handle;
+        this.writable = field != null && !Modifier.isFinal(field.getModifiers());
+    }
+
+    /**
+     * Looks a field up in a class hierarchy and binds a handle to it. A missing field or
+     * a type mismatch is logged here, once, and yields an absent accessor.
+     *
+     * @param owner     The class to search from.
+     * @param fieldName The field name.
+     * @param type      The expected value type.
+     * @return The accessor.
+     */
+    @Nonnull
+    static <T, V> FieldAccessor<T, V> resolve(@Nonnull Class<T> owner, @Nonnull String fieldName, @Nonnull Class<V> type) {
+        Field field = null;
+        for (Class<?> current = owner; current != null && field == null; current = current.getSuperclass()) {
+            try {
+                field = current.getDeclaredField(fieldName);
+            } catch (NoSuchFieldException ignored) {
+            }
+        }
+        if (field == null) {
+            LOGGER.warning("Field not found: " + owner.getName() + "." + fieldName);
+            return new FieldAccessor<>(fieldName, null, null);
+        }
+
+        Class<?> fieldType = MethodType.methodType(field.getType()).wrap().returnType();
+        if (!type.isAssignableFrom(fieldType)) {
+            LOGGER.warning("Field " + owner.getName() + "." + fieldName + " has type " + field.getType().getName()
+                    + ", expected " + type.getName());
+            return new FieldAccessor<>(fieldName, null, null);
+        }
+
+        try {
+            field.setAccessible(true);
+        } catch (RuntimeException e) {
+            LOGGER.warning("Cannot access field: " + owner.getName() + "." + fieldName + " - " + e.getMessage());
+            return new FieldAccessor<>(fieldName, null, null);
+        }
+
+        VarHandle handle = null;
+        try {
+            handle = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup()).unreflectVarHandle(field);
+        } catch (IllegalAccessException | RuntimeException e) {
+            LOGGER.fine("Using reflection for " + owner.getName() + "." + fieldName + ": " + e.getMessage());
+        }
+        return new FieldAccessor<>(fieldName, field, handle);
+    }
+
+    /**
+     * Checks whether the field was found.
+     *
+     * @return True if reads and writes reach the field.
+     */
+    public boolean isPresent() {
+        return field != null;
+    }
+
+    /**
+     * Gets the field name.
+     *
+     * @return The name.
+     */
+    @Nonnull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Reads the field.
+     *
+     * @param instance The instance to read from.
+     * @return The value, or null if the field is absent.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V get(@Nonnull T instance) {
+        if (handle != null) {
+            return (V) handle.get(instance);
+        }
+        if (field == null) {
+            return null;
+        }
+        try {
+            return (V) field.get(instance);
+        } catch (IllegalAccessException e) {
+            LOGGER.warning("Cannot access field: " + name);
+            return null;
+        }
+    }
+
+    /**
+     * Writes the field.
+     *
+     * @param instance The instance to write to.
+     * @param value    The new value.
+     * @return True if the value was written.
+     */
+    public boolean set(@Nonnull T instance, @Nullable V value) {
+        if (handle != null && writable) {
+            handle.set(instance, value);
+            return true;
+        }
+        if (field == null) {
+            return false;
+        }
+        try {
+            field.set(instance, value);
+            return true;
+        } catch (IllegalAccessException e) {
+            LOGGER.warning("Cannot access field for setting: " + name);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package dev.ninesliced.utils;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+
+import javax.annotation.Nonnull;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+
+/**
+ * Shadow of the map chunks a player's world map tracker has loaded, used to find the ones to
+ * unload without walking the tracker's own loaded set.
+ * <p>
+ * Every chunk handed to the tracker is added. Chunks that may have stopped being targets, the
+ * ones evicted from the nearest-chunk window and former boundary chunks, are remembered as
+ * candidates, and {@link #diff} only checks those, so the cost follows the change rather than
+ * the loaded count. After {@link #requestFullResync()} the whole shadow is checked instead.
+ * Boundary chunks, the corners of the player's explored bounds, stay targets even outside
+ * the window.
+ * <p>
+ * Not thread-safe; the owning iterator guards it with its own lock.
+ */
+public class MapLoadedShadow {
+    private static final int MAX_BOUNDARIES = 4;
+
+    private final LongOpenHashSet loaded = new LongOpenHashSet();
+    private final LongArrayList candidates = new LongArrayList();
+    private final LongArrayList stale = new LongArrayList();
+    private final LongConsumer collectStale = this::collectStale;
+    private final long[] boundaries = new long[MAX_BOUNDARIES];
+    private int boundaryCount;
+    private boolean fullResync = true;
+    private LongPredicate windowTargets;
+
+    /**
+     * Records a chunk the tracker now has loaded.
+     *
+     * @param chunkIndex The tracker chunk index.
+     */
+    public void add(long chunkIndex) {
+        loaded.add(chunkIndex);
+    }
+
+    /**
+     * Checks if the tracker has a chunk loaded, as far as the shadow knows.
+     *
+     * @param chunkIndex The tracker chunk index.
+     * @return True if loaded.
+     */
+    public boolean contains(long chunkIndex) {
+        return loaded.contains(chunkIndex);
+    }
+
+    /**
+     * Gets the number of chunks in the shadow.
+     *
+     * @return The loaded count.
+     */
+    public int size() {
+        return loaded.size();
+    }
+
+    /**
+     * Remembers a chunk that may no longer be a target, to check on the next {@link #diff}.
+     *
+     * @param chunkIndex The tracker chunk index.
+     */
+    public void markCandidate(long chunkIndex) {
+        candidates.add(chunkIndex);
+    }
+
+    /**
+     * Makes the next {@link #diff} check every chunk in the shadow, e.g. after the window was rebuilt.
+     */
+    public void requestFullResync() {
+        fullResync = true;
+    }
+
+    /**
+     * Drops the boundary chunks before they are set again. The old ones become candidates,
+     * so any that are not boundary chunks any more are unloaded unless the window still has them.
+     */
+    public void clearBoundaries() {
+        for (int i = 0; i < boundaryCount; i++) {
+            candidates.add(boundaries[i]);
+        }
+        boundaryCount = 0;
+    }
+
+    /**
+     * Adds a boundary chunk. Duplicates and chunks past the four corners are ignored.
+     *
+     * @param chunkIndex The tracker chunk index.
+     */
+    public void addBoundary(long chunkIndex) {
+        if (boundaryCount < MAX_BOUNDARIES && !isBoundary(chunkIndex)) {
+            boundaries[boundaryCount++] = chunkIndex;
+        }
+    }
+
+    /**
+     * Gets the number of boundary chunks.
+     *
+     * @return The boundary count.
+     */
+    public int getBoundaryCount() {
+        return boundaryCount;
+    }
+
+    /**
+     * Checks if a chunk is one of the boundary chunks.
+     *
+     * @param chunkIndex The tracker chunk index.
+     * @return True if it is a boundary chunk.
+     */
+    public boolean isBoundary(long chunkIndex) {
+        for (int i = 0; i < boundaryCount; i++) {
+            if (boundaries[i] == chunkIndex) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Hands out the loaded chunks that are no longer targets and forgets them.
+     *
+     * @param windowTargets Tells whether a tracker chunk index is in the nearest-chunk window.
+     * @param action        The consumer receiving each tracker chunk index to unload.
+     */
+    public void diff(@Nonnull LongPredicate windowTargets, @Nonnull LongConsumer action) {
+        this.windowTargets = windowTargets;
+        stale.clear();
+        if (fullResync) {
+            fullResync = false;
+            loaded.forEach(collectStale);
+        } else {
+            for (int i = 0; i < candidates.size(); i++) {
+                long idx = candidates.getLong(i);
+                if (loaded.contains(idx)) {
+                    collectStale(idx);
+                }
+            }
+        }
+        candidates.clear();
+        this.windowTargets = null;
+
+        for (int i = 0; i < stale.size(); i++) {
+            long idx = stale.getLong(i);
+            // A chunk may have been a candidate twice.
+            if (loaded.remove(idx)) {
+                action.accept(idx);
+            }
+        }
+        stale.clear();
+    }
+
+    private void collectStale(long idx) {
+        if (!isBoundary(idx) && !windowTargets.test(idx)) {
+            stale.add(idx);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package dev.ninesliced.utils;
+
+import dev.ninesliced.configs.BetterMapConfig;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Server-wide budget for map chunk images handed to the world map trackers.
+ * <p>
+ * Time is cut into windows of {@link #WINDOW_MILLIS}. In each window at most
+ * {@link BetterMapConfig#getMapChunksPerTick()} new map chunks are sent in total, and each
+ * player gets an equal share of that, capped at {@link BetterMapConfig#getMapChunksPerPlayerTick()}.
+ * While several players are loading at once, distant backfill may only use part of the
+ * total so chunks near each player, including newly explored ones, still get through.
+ */
+public final class MapSendBudget {
+
+    /**
+     * Length of a budget window in milliseconds.
+     */
+    public static final long WINDOW_MILLIS = 100;
+
+    /**
+     * Fraction of the total budget, in quarters, kept for near chunks while players compete.
+     */
+    private static final int NEAR_RESERVE_QUARTERS = 1;
+
+    private static final MapSendBudget INSTANCE = new MapSendBudget();
+
+    private long window = -1;
+    private int used;
+    private int active;
+    private int previousActive;
+
+    private MapSendBudget() {
+    }
+
+    /**
+     * Gets the singleton instance.
+     *
+     * @return The budget.
+     */
+    @Nonnull
+    public static MapSendBudget getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Asks to send one map chunk to a player in the current window.
+     *
+     * @param allowance The player's allowance.
+     * @param near      True for chunks near the player, false for distant backfill.
+     * @return True if the chunk may be sent now.
+     */
+    public synchronized boolean tryAcquire(@Nonnull Allowance allowance, boolean near) {
+        BetterMapConfig config = BetterMapConfig.getInstance();
+        int total = config.getMapChunksPerTick();
+        int perPlayer = config.getMapChunksPerPlayerTick();
+        if (total <= 0 && perPlayer <= 0) {
+            return true;
+        }
+
+        long now = System.nanoTime() / (WINDOW_MILLIS * 1_000_000L);
+        if (now != window) {
+            previousActive = now == window + 1 ? active : 0;
+            active = 0;
+            used = 0;
+            window = now;
+        }
+        if (allowance.window != now) {
+            allowance.window = now;
+            allowance.sent = 0;
+            active++;
+        }
+
+        int players = Math.max(1, Math.max(active, previousActive));
+        int share = perPlayer > 0 ? perPlayer : Integer.MAX_VALUE;
+        if (total > 0) {
+            share = Math.min(share, Math.max(1, total / players));
+        }
+
+        boolean allowed = allowance.sent < share;
+        if (allowed && total > 0) {
+            int limit = near || players == 1 ? total : total - total * NEAR_RESERVE_QUARTERS / 4;
+            allowed = used < limit;
+        }
+
+        if (!allowed) {
+            return false;
+        }
+        allowance.sent++;
+        used++;
+        return true;
+    }
+
+    /**
+     * A player's use of the budget in the current window.
+     */
+    public static final class Allowance {
+        private long window = -1;
+        private int sent;
+    }
+}
@@ -0,0 +1,137 @@
+package dev.ninesliced.utils;
+
+import com.hypixel.hytale.protocol.packets.worldmap.MapChunk;
+import dev.ninesliced.configs.BetterMapConfig;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Per-player queue of map chunk removals waiting to be sent.
+ * <p>
+ * Removals are sent oldest first in packets of at most {@link BetterMapConfig#getMapUnloadBatchSize()}
+ * entries, and no more than {@link BetterMapConfig#getMapUnloadBytesPerTick()} estimated bytes
+ * go out per flush, so a teleport spreads its removals over several ticks. A chunk stays in
+ * the tracker's loaded set until its removal is sent; if it becomes a target again before
+ * that, the removal is cancelled and nothing is sent for it.
+ */
+public class MapUnloadScheduler {
+
+    /**
+     * Estimated encoded size of one removal: two int coordinates and a null image flag.
+     */
+    public static final int ENTRY_BYTES = 9;
+
+    private final LongOpenHashSet pending = new LongOpenHashSet();
+    private final LongArrayList order = new LongArrayList();
+    private int head;
+
+    /**
+     * Queues a chunk for removal. Queuing a chunk that is already pending does nothing.
+     *
+     * @param chunkIndex The tracker chunk index.
+     */
+    public synchronized void enqueue(long chunkIndex) {
+        if (pending.add(chunkIndex)) {
+            order.add(chunkIndex);
+        }
+    }
+
+    /**
+     * Cancels a pending removal because the chunk is wanted again.
+     *
+     * @param chunkIndex The tracker chunk index.
+     * @return True if a removal was pending.
+     */
+    public synchronized boolean cancel(long chunkIndex) {
+        return !pending.isEmpty() && pending.remove(chunkIndex);
+    }
+
+    /**
+     * Checks if a removal is pending for a chunk.
+     *
+     * @param chunkIndex The tracker chunk index.
+     * @return True if pending.
+     */
+    public synchronized boolean isPending(long chunkIndex) {
+        return pending.contains(chunkIndex);
+    }
+
+    /**
+     * Gets the number of removals waiting to be sent.
+     *
+     * @return The queue size.
+     */
+    public synchronized int size() {
+        return pending.size();
+    }
+
+    /**
+     * Drops every pending removal.
+     */
+    public synchronized void clear() {
+        pending.clear();
+        order.clear();
+        head = 0;
+    }
+
+    /**
+     * Sends the oldest pending removals within this tick's budget. Each sent chunk is
+     * removed from the tracker's loaded set; chunks no longer in it are skipped.
+     *
+     * @param loaded The tracker's loaded set.
+     * @param send   Receives each batch of removal entries.
+     * @return The number of chunks sent.
+     */
+    public synchronized int flush(@Nonnull Set<Long> loaded, @Nonnull Consumer<MapChunk[]> send) {
+        if (pending.isEmpty()) {
+            order.clear();
+            head = 0;
+            return 0;
+        }
+
+        BetterMapConfig config = BetterMapConfig.getInstance();
+        int batchSize = config.getMapUnloadBatchSize();
+        // Always let at least one entry through so a tiny budget cannot stall the queue.
+        int remaining = Math.max(1, config.getMapUnloadBytesPerTick() / ENTRY_BYTES);
+        int sent = 0;
+
+        while (remaining > 0 && !pending.isEmpty() && head < order.size()) {
+            MapChunk[] batch = new MapChunk[Math.min(batchSize, Math.min(remaining, pending.size()))];
+            int count = 0;
+            while (count < batch.length && head < order.size()) {
+                long chunkIndex = order.getLong(head++);
+                if (pending.remove(chunkIndex) && loaded.remove(chunkIndex)) {
+                    batch[count++] = new MapChunk(
+                            com.hypixel.hytale.math.util.ChunkUtil.xOfChunkIndex(chunkIndex),
+                            com.hypixel.hytale.math.util.ChunkUtil.zOfChunkIndex(chunkIndex),
+                            null);
+                }
+            }
+            if (count == 0) {
+                continue;
+            }
+
+            send.accept(count == batch.length ? batch : Arrays.copyOf(batch, count));
+            remaining -= count;
+            sent += count;
+        }
+
+        compact();
+        return sent;
+    }
+
+    private void compact() {
+        if (head >= order.size()) {
+            order.clear();
+            head = 0;
+        } else if (head > 1024 && head > order.size() / 2) {
+            order.removeElements(0, head);
+            head = 0;
+        }
+    }
+}
@@ -4,14 +4,45 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 /**
  * Utility for performing reflection operations safely.
+ * Fields accessed by name are resolved once per class and cached as {@link FieldAccessor}s.
  */
 public class ReflectionHelper {
 
     private static final Logger LOGGER = Logger.getLogger(ReflectionHelper.class.getName());
+    private static final ClassValue<Map<String, FieldAccessor<?, ?>>> ACCESSORS = new ClassValue<>() {
+        @Override
+        protected Map<String, FieldAccessor<?, ?>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    /**
+     * Gets the cached accessor for a field, searching the class hierarchy the first time.
+     * Resolve accessors once, e.g. in a static constant, and reuse them on hot paths.
+     * A missing field is reported once and yields an accessor that is not present.
+     *
+     * @param owner     The class to search from.
+     * @param fieldName The field name.
+     * @param type      The expected value type, boxed for primitives.
+     * @return The accessor.
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    public static <T, V> FieldAccessor<T, V> accessor(@Nonnull Class<T> owner, @Nonnull String fieldName, @Nonnull Class<V> type) {
+        Map<String, FieldAccessor<?, ?>> accessors = ACCESSORS.get(owner);
+        String key = fieldName + ":" + type.getName();
+        FieldAccessor<?, ?> accessor = accessors.get(key);
+        if (accessor == null) {
+            accessor = accessors.computeIfAbsent(key, k -> FieldAccessor.resolve(owner, fieldName, type));
+        }
+        return (FieldAccessor<T, V>) accessor;
+    }
 
     /**
      * Gets a field from a class, setting it accessible.
@@ -146,15 +177,7 @@ public class ReflectionHelper {
      */
     @Nullable
     public static Object getFieldValueRecursive(@Nonnull Object instance, @Nonnull String fieldName) {
-        try {
-            Field field = getFieldRecursive(instance.getClass(), fieldName);
-            if (field != null) {
-                return field.get(instance);
-            }
-        } catch (IllegalAccessException e) {
-            LOGGER.warning("Cannot access field recursively: " + fieldName);
-        }
-        return null;
+        return accessorFor(instance, fieldName).get(instance);
     }
 
     /**
@@ -165,13 +188,11 @@ public class ReflectionHelper {
      * @param value     The new value.
      */
     public static void setFieldValueRecursive(@Nonnull Object instance, @Nonnull String fieldName, @Nullable Object value) {
-        try {
-            Field field = getFieldRecursive(instance.getClass(), fieldName);
-            if (field != null) {
-                field.set(instance, value);
-            }
-        } catch (IllegalAccessException e) {
-            LOGGER.warning("Cannot access field recursively for setting: " + fieldName);
-        }
+        accessorFor(instance, fieldName).set(instance, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static FieldAccessor<Object, Object> accessorFor(Object instance, String fieldName) {
+        return accessor((Class<Object>) instance.getClass(), fieldName, Object.class);
     }
 }
@@ -3,7 +3,6 @@ package dev.ninesliced.utils;
 import com.hypixel.hytale.component.Holder;
 import com.hypixel.hytale.math.iterator.CircleSpiralIterator;
 import com.hypixel.hytale.protocol.Packet;
-import com.hypixel.hytale.protocol.packets.worldmap.MapChunk;
 import com.hypixel.hytale.protocol.packets.worldmap.UpdateWorldMap;
 import com.hypixel.hytale.protocol.packets.worldmap.UpdateWorldMapSettings;
 import com.hypixel.hytale.server.core.command.system.CommandSender;
@@ -19,12 +18,16 @@ import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import dev.ninesliced.configs.BetterMapConfig;
 import dev.ninesliced.configs.PlayerConfig;
 import dev.ninesliced.exploration.ExplorationTracker;
+import dev.ninesliced.exploration.ExploredChunksTracker;
+import dev.ninesliced.exploration.NearestMapChunkWindow;
 import dev.ninesliced.managers.ExplorationManager;
 import dev.ninesliced.managers.MapExpansionManager;
 import dev.ninesliced.managers.PlayerConfigManager;
 
 import javax.annotation.Nonnull;
 import java.util.*;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
 import java.util.logging.Logger;
 
 /**
@@ -33,6 +36,44 @@ import java.util.logging.Logger;
 public class WorldMapHook {
     private static final Logger LOGGER = Logger.getLogger(WorldMapHook.class.getName());
 
+    private static final FieldAccessor<WorldMapTracker, Object> SPIRAL_ITERATOR =
+            ReflectionHelper.accessor(WorldMapTracker.class, "spiralIterator", Object.class);
+    private static final FieldAccessor<WorldMapTracker, Object> LOADED =
+            ReflectionHelper.accessor(WorldMapTracker.class, "loaded", Object.class);
+    private static final FieldAccessor<WorldMapTracker, Float> UPDATE_TIMER =
+            ReflectionHelper.accessor(WorldMapTracker.class, "updateTimer", Float.class);
+    private static final FieldAccessor<WorldMapTracker, Object> VIEW_RADIUS_OVERRIDE =
+            ReflectionHelper.accessor(WorldMapTracker.class, "viewRadiusOverride", Object.class);
+    private static final FieldAccessor<WorldMapTracker, Object> PENDING_RELOAD_FUTURES =
+            ReflectionHelper.accessor(WorldMapTracker.class, "pendingReloadFutures", Object.class);
+    private static final FieldAccessor<WorldMapTracker, Object> PENDING_RELOAD_CHUNKS =
+            ReflectionHelper.accessor(WorldMapTracker.class, "pendingReloadChunks", Object.class);
+
+    /**
+     * Resolves the tracker field accessors. Called once at startup so a field missing from
+     * the server build is reported at boot rather than on the first tick.
+     */
+    public static void resolveAccessors() {
+        FieldAccessor<?, ?>[] accessors = {SPIRAL_ITERATOR, LOADED, UPDATE_TIMER, VIEW_RADIUS_OVERRIDE,
+                PENDING_RELOAD_FUTURES, PENDING_RELOAD_CHUNKS};
+        int present = 0;
+        for (FieldAccessor<?, ?> accessor : accessors) {
+            if (accessor.isPresent()) {
+                present++;
+            }
+        }
+        LOGGER.info("Map tracker fields resolved: " + present + "/" + accessors.length);
+    }
+
+    /**
+     * Resets the tracker's update timer so it runs on its next tick.
+     *
+     * @param tracker The world map tracker.
+     */
+    public static void resetUpdateTimer(@Nonnull WorldMapTracker tracker) {
+        UPDATE_TIMER.set(tracker, 0.0f);
+    }
+
     /**
      * Injects a custom RestrictedSpiralIterator into the player's world map tracker.
      *
@@ -41,7 +82,7 @@ public class WorldMapHook {
      */
     public static void hookPlayerMapTracker(@Nonnull Player player, @Nonnull WorldMapTracker tracker) {
         try {
-            ReflectionHelper.setFieldValueRecursive(tracker, "viewRadiusOverride", 999);
+            VIEW_RADIUS_OVERRIDE.set(tracker, 999);
 
             World world = player.getWorld();
             if (world != null) {
@@ -50,8 +91,11 @@ public class WorldMapHook {
 
             ExplorationTracker.PlayerExplorationData explorationData = ExplorationTracker.getInstance().getOrCreatePlayerData(player);
             RestrictedSpiralIterator customIterator = new RestrictedSpiralIterator(explorationData, tracker);
+            if (LOADED.get(tracker) instanceof Set<?> loaded) {
+                customIterator.seedLoaded(loaded);
+            }
 
-            ReflectionHelper.setFieldValueRecursive(tracker, "spiralIterator", customIterator);
+            SPIRAL_ITERATOR.set(tracker, customIterator);
 
             LOGGER.info("Hooked map tracker for player: " + player.getDisplayName());
         } catch (Exception e) {
@@ -68,18 +112,18 @@ public class WorldMapHook {
      */
     public static void unhookPlayerMapTracker(@Nonnull Player player, @Nonnull WorldMapTracker tracker) {
         try {
-            Object spiralIterator = ReflectionHelper.getFieldValueRecursive(tracker, "spiralIterator");
+            Object spiralIterator = SPIRAL_ITERATOR.get(tracker);
             if (spiralIterator instanceof RestrictedSpiralIterator) {
                 ((RestrictedSpiralIterator) spiralIterator).stop();
             }
 
             CircleSpiralIterator vanillaIterator = new CircleSpiralIterator();
             vanillaIterator.init(0, 0, 0, 1);
-            ReflectionHelper.setFieldValueRecursive(tracker, "spiralIterator", vanillaIterator);
-            ReflectionHelper.setFieldValueRecursive(tracker, "viewRadiusOverride", null);
+            SPIRAL_ITERATOR.set(tracker, vanillaIterator);
+            VIEW_RADIUS_OVERRIDE.set(tracker, null);
 
             try {
-                Object pendingReloadFutures = ReflectionHelper.getFieldValueRecursive(tracker, "pendingReloadFutures");
+                Object pendingReloadFutures = PENDING_RELOAD_FUTURES.get(tracker);
                 if (pendingReloadFutures instanceof Map) {
                     ((Map<?, ?>) pendingReloadFutures).clear();
                 }
@@ -88,7 +132,7 @@ public class WorldMapHook {
             }
 
             try {
-                Object pendingReloadChunks = ReflectionHelper.getFieldValueRecursive(tracker, "pendingReloadChunks");
+                Object pendingReloadChunks = PENDING_RELOAD_CHUNKS.get(tracker);
                 if (pendingReloadChunks instanceof Set) {
                     ((Set<?>) pendingReloadChunks).clear();
                 }
@@ -97,7 +141,7 @@ public class WorldMapHook {
             }
 
             try {
-                ReflectionHelper.setFieldValueRecursive(tracker, "updateTimer", 999.0f);
+                UPDATE_TIMER.set(tracker, 999.0f);
             } catch (Exception ignored) {}
 
             LOGGER.info("Unhooked map tracker for player: " + player.getDisplayName());
@@ -114,18 +158,18 @@ public class WorldMapHook {
      */
     public static void restoreVanillaMapTracker(@Nonnull Player player, @Nonnull WorldMapTracker tracker) {
         try {
-            Object spiralIterator = ReflectionHelper.getFieldValueRecursive(tracker, "spiralIterator");
+            Object spiralIterator = SPIRAL_ITERATOR.get(tracker);
             if (spiralIterator instanceof RestrictedSpiralIterator) {
                 ((RestrictedSpiralIterator) spiralIterator).stop();
             }
 
-            ReflectionHelper.setFieldValueRecursive(tracker, "viewRadiusOverride", null);
+            VIEW_RADIUS_OVERRIDE.set(tracker, null);
 
             CircleSpiralIterator vanillaIterator = new CircleSpiralIterator();
             vanillaIterator.init(0, 0, 0, 1);
-            ReflectionHelper.setFieldValueRecursive(tracker, "spiralIterator", vanillaIterator);
+            SPIRAL_ITERATOR.set(tracker, vanillaIterator);
 
-            ReflectionHelper.setFieldValueRecursive(tracker, "updateTimer", 0.0f);
+            UPDATE_TIMER.set(tracker, 0.0f);
 
             LOGGER.info("Restored vanilla map tracker for player: " + player.getDisplayName());
         } catch (Exception e) {
@@ -188,8 +232,11 @@ public class WorldMapHook {
             if (hasMoved) {
                 int explorationRadius = BetterMapConfig.getInstance().getExplorationRadius();
 
-                explorationData.getMapExpansion().updateBoundaries(playerChunkX, playerChunkZ, explorationRadius);
+                explorationData.getMapExpansion().exploreAround(playerChunkX, playerChunkZ, explorationRadius);
                 explorationData.setLastChunkPosition(playerChunkX, playerChunkZ);
+                if (world != null) {
+                    ExplorationManager.getInstance().loadExplorationNear(player, world.getName(), playerChunkX, playerChunkZ);
+                }
 
                 forceTrackerUpdate(player, tracker, x, z);
 
@@ -197,6 +244,9 @@ public class WorldMapHook {
                 int mapChunkZ = playerChunkZ >> 1;
                 manageLoadedChunks(player, tracker, mapChunkX, mapChunkZ);
             }
+
+            flushUnloads(player, tracker);
+            resumeThrottled(tracker);
         } catch (Exception e) {
             LOGGER.warning("[DEBUG] Exception in updateExplorationState: " + e.getMessage());
             e.printStackTrace();
@@ -205,47 +255,66 @@ public class WorldMapHook {
 
     private static void manageLoadedChunks(@Nonnull Player player, @Nonnull WorldMapTracker tracker, int cx, int cz) {
         try {
-            Object loadedObj = ReflectionHelper.getFieldValueRecursive(tracker, "loaded");
+            Object loadedObj = LOADED.get(tracker);
             if (!(loadedObj instanceof Set))
                 return;
             
             @SuppressWarnings("unchecked")
             Set<Long> loaded = (Set<Long>) loadedObj;
 
-            Object spiralIterator = ReflectionHelper.getFieldValueRecursive(tracker, "spiralIterator");
+            Object spiralIterator = SPIRAL_ITERATOR.get(tracker);
             if (!(spiralIterator instanceof RestrictedSpiralIterator))
                 return;
 
-            List<Long> targetChunks = ((RestrictedSpiralIterator) spiralIterator).getTargetMapChunks();
-            Set<Long> targetSet = new HashSet<>(targetChunks);
-
-            List<Long> toUnload = new ArrayList<>();
-            List<Long> loadedSnapshot = new ArrayList<>(loaded);
-
-            List<MapChunk> unloadPackets = new ArrayList<>();
-
-            for (Long idx : loadedSnapshot) {
-                if (!targetSet.contains(idx)) {
-                    toUnload.add(idx);
-                    int mx = com.hypixel.hytale.math.util.ChunkUtil.xOfChunkIndex(idx);
-                    int mz = com.hypixel.hytale.math.util.ChunkUtil.zOfChunkIndex(idx);
-                    unloadPackets.add(new MapChunk(mx, mz, null));
+            RestrictedSpiralIterator restrictedIterator = (RestrictedSpiralIterator) spiralIterator;
+            MapUnloadScheduler unloads = restrictedIterator.getUnloadScheduler();
+            restrictedIterator.diffUnloads(idx -> {
+                if (loaded.contains(idx)) {
+                    unloads.enqueue(idx);
                 }
-            }
+            });
+        } catch (Exception e) {
+            LOGGER.warning("Failed to manage loaded chunks: " + e.getMessage());
+        }
+    }
 
-            if (toUnload.isEmpty()) return;
+    /**
+     * Sends the player's queued map chunk removals that fit in this tick's budget.
+     *
+     * @param player  The player.
+     * @param tracker The tracker.
+     */
+    private static void flushUnloads(@Nonnull Player player, @Nonnull WorldMapTracker tracker) {
+        try {
+            if (!(SPIRAL_ITERATOR.get(tracker) instanceof RestrictedSpiralIterator restrictedIterator))
+                return;
 
-            toUnload.forEach(loaded::remove);
+            MapUnloadScheduler unloads = restrictedIterator.getUnloadScheduler();
+            if (unloads.size() == 0)
+                return;
 
-            UpdateWorldMap packet = new UpdateWorldMap(
-                    unloadPackets.toArray(new MapChunk[0]),
-                    null,
-                    null
-            );
-            sendPacket(player, packet);
+            Object loadedObj = LOADED.get(tracker);
+            if (!(loadedObj instanceof Set))
+                return;
 
+            @SuppressWarnings("unchecked")
+            Set<Long> loaded = (Set<Long>) loadedObj;
+            unloads.flush(loaded, batch -> sendPacket(player, new UpdateWorldMap(batch, null, null)));
         } catch (Exception e) {
-            LOGGER.warning("Failed to manage loaded chunks: " + e.getMessage());
+            LOGGER.warning("Failed to send map chunk unloads: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Brings the tracker back next tick when the send budget cut its last pass short, so the
+     * remaining chunks keep arriving while the player stands still.
+     *
+     * @param tracker The tracker.
+     */
+    private static void resumeThrottled(@Nonnull WorldMapTracker tracker) {
+        if (SPIRAL_ITERATOR.get(tracker) instanceof RestrictedSpiralIterator restrictedIterator
+                && restrictedIterator.consumeThrottled()) {
+            UPDATE_TIMER.set(tracker, 0.0f);
         }
     }
 
@@ -261,7 +330,7 @@ public class WorldMapHook {
 
     private static void forceTrackerUpdate(@Nonnull Player player, @Nonnull WorldMapTracker tracker, double x, double z) {
         try {
-            Object spiralIterator = ReflectionHelper.getFieldValueRecursive(tracker, "spiralIterator");
+            Object spiralIterator = SPIRAL_ITERATOR.get(tracker);
             if (spiralIterator instanceof RestrictedSpiralIterator restrictedIterator) {
                 int chunkX = (int) Math.floor(x) >> 5;
                 int chunkZ = (int) Math.floor(z) >> 5;
@@ -269,7 +338,7 @@ public class WorldMapHook {
                 restrictedIterator.init(chunkX, chunkZ, 0, 999);
             }
 
-            ReflectionHelper.setFieldValueRecursive(tracker, "updateTimer", 0.0f);
+            UPDATE_TIMER.set(tracker, 0.0f);
         } catch (Exception e) {
             LOGGER.warning("[DEBUG] Failed to force tracker update: " + e.getMessage());
         }
@@ -392,10 +461,26 @@ public class WorldMapHook {
      * Thread-safe implementation to prevent race conditions with the WorldMap thread.
      */
     public static class RestrictedSpiralIterator extends CircleSpiralIterator {
+        private static final int INITIAL_TARGET_CAPACITY = 256;
+        private static final LongConsumer IGNORE = chunk -> {};
+
         private final ExplorationTracker.PlayerExplorationData data;
         private final WorldMapTracker tracker;
-        private volatile Iterator<Long> currentIterator;
-        private volatile List<Long> targetMapChunks = new ArrayList<>();
+        private final NearestMapChunkWindow window = new NearestMapChunkWindow();
+        private ExploredChunksTracker windowSource;
+        private final MapLoadedShadow shadow = new MapLoadedShadow();
+        private final LongConsumer queueUnload = mapChunk -> shadow.markCandidate(toTrackerIndex(mapChunk));
+        private final LongPredicate inWindow = this::inWindow;
+        private final LongConsumer collectTarget = this::collectTarget;
+        private long[] targets = new long[INITIAL_TARGET_CAPACITY];
+        private int targetCount;
+        private int cursor;
+        private final MapUnloadScheduler unloadScheduler = new MapUnloadScheduler();
+        private final MapSendBudget.Allowance sendAllowance = new MapSendBudget.Allowance();
+        private boolean sendPermitHeld;
+        private boolean throttled;
+        private long[] farScratch = new long[INITIAL_TARGET_CAPACITY];
+        private int nearRadiusSq;
         private volatile int currentGoalRadius;
         private volatile boolean stopped = false;
         private volatile boolean initialized = false;
@@ -410,14 +495,14 @@ public class WorldMapHook {
             super.init(0, 0, 0, 1);
             this.data = data;
             this.tracker = tracker;
-            this.currentIterator = Collections.emptyIterator();
             this.initialized = true;
         }
 
         public void stop() {
             synchronized (lock) {
                 this.stopped = true;
-                this.currentIterator = Collections.emptyIterator();
+                clearTargets();
+                unloadScheduler.clear();
                 try {
                     super.init(0, 0, 0, 1);
                 } catch (Exception ignored) {}
@@ -425,12 +510,76 @@ public class WorldMapHook {
         }
 
         /**
-         * Gets the list of target chunks being iterated.
+         * Gets the queue of map chunk removals waiting to be sent to this player.
+         *
+         * @return The unload scheduler.
+         */
+        @Nonnull
+        public MapUnloadScheduler getUnloadScheduler() {
+            return unloadScheduler;
+        }
+
+        /**
+         * Seeds the shadow of the tracker's loaded set with chunks loaded before the hook.
+         *
+         * @param loaded The tracker's loaded set.
+         */
+        public void seedLoaded(@Nonnull Set<?> loaded) {
+            synchronized (lock) {
+                for (Object obj : loaded) {
+                    if (obj instanceof Long idx) {
+                        shadow.add(idx.longValue());
+                    }
+                }
+            }
+        }
+
+        /**
+         * Hands out the loaded chunks that are no longer targets and forgets them.
+         * <p>
+         * The iterator keeps a {@link MapLoadedShadow} of the tracker's loaded set, adding every
+         * chunk it yields. Normally only the chunks that left the window or stopped being
+         * boundary chunks since the last call are checked, so the cost follows the change
+         * rather than the loaded count. After a window rebuild the whole shadow is compared
+         * against the targets instead.
          *
-         * @return List of chunk indices.
+         * @param action The consumer receiving each tracker chunk index to unload.
          */
-        public List<Long> getTargetMapChunks() {
-            return targetMapChunks;
+        public void diffUnloads(@Nonnull LongConsumer action) {
+            synchronized (lock) {
+                shadow.diff(inWindow, action);
+            }
+        }
+
+        private boolean inWindow(long idx) {
+            return window.contains(ChunkUtil.chunkCoordsToIndex(
+                    com.hypixel.hytale.math.util.ChunkUtil.xOfChunkIndex(idx),
+                    com.hypixel.hytale.math.util.ChunkUtil.zOfChunkIndex(idx)));
+        }
+
+        private static long toTrackerIndex(long mapChunk) {
+            return com.hypixel.hytale.math.util.ChunkUtil.indexChunk(
+                    ChunkUtil.indexToChunkX(mapChunk), ChunkUtil.indexToChunkZ(mapChunk));
+        }
+
+        private void addBoundary(int mapX, int mapZ) {
+            shadow.addBoundary(com.hypixel.hytale.math.util.ChunkUtil.indexChunk(mapX, mapZ));
+        }
+
+        private void collectTarget(long mapChunk) {
+            long idx = toTrackerIndex(mapChunk);
+            if (shadow.isBoundary(idx)) {
+                return;
+            }
+            if (targetCount == targets.length) {
+                targets = Arrays.copyOf(targets, targets.length * 2);
+            }
+            targets[targetCount++] = idx;
+        }
+
+        private void clearTargets() {
+            targetCount = 0;
+            cursor = 0;
         }
 
         @Override
@@ -440,9 +589,9 @@ public class WorldMapHook {
             } catch (Exception ignored) {}
 
             synchronized (lock) {
+                clearTargets();
+                this.initialized = true;
                 if (stopped) {
-                    this.currentIterator = Collections.emptyIterator();
-                    this.initialized = true;
                     return;
                 }
 
@@ -452,144 +601,156 @@ public class WorldMapHook {
                 this.currentGoalRadius = endRadius;
 
                 try {
-                    Set<Long> mapChunks = new HashSet<>();
-                    Set<Long> exploredWorldChunks;
-
                     Player player = tracker.getPlayer();
                     if (player == null || data == null) {
-                        this.currentIterator = Collections.emptyIterator();
-                        this.initialized = true;
                         return;
                     }
 
-                    if (BetterMapConfig.getInstance().isShareAllExploration()) {
-                        World world = player.getWorld();
-                        String worldName = world != null ? world.getName() : "world";
-                        exploredWorldChunks = ExplorationManager.getInstance().getAllExploredChunks(worldName);
-                    } else {
-                        exploredWorldChunks = data.getExploredChunks().getExploredChunks();
-                    }
-
-                    if (exploredWorldChunks == null || exploredWorldChunks.isEmpty()) {
-                        this.currentIterator = Collections.emptyIterator();
-                        this.targetMapChunks = new ArrayList<>();
-                        this.initialized = true;
-                        return;
-                    }
-
-                    for (Long chunkIdx : exploredWorldChunks) {
-                        int wx = ChunkUtil.indexToChunkX(chunkIdx);
-                        int wz = ChunkUtil.indexToChunkZ(chunkIdx);
-
-                        int mx = wx >> 1;
-                        int mz = wz >> 1;
-
-                        long mapChunkIdx = com.hypixel.hytale.math.util.ChunkUtil.indexChunk(mx, mz);
-                        mapChunks.add(mapChunkIdx);
-                    }
-
-                    List<Long> rankedChunks = new ArrayList<>();
                     MapExpansionManager.MapBoundaries bounds = data.getMapExpansion().getCurrentBoundaries();
-                    Set<Long> boundaryChunks = new HashSet<>();
-
+                    shadow.clearBoundaries();
                     if (bounds != null && bounds.minX != Integer.MAX_VALUE) {
-                        boundaryChunks.add(com.hypixel.hytale.math.util.ChunkUtil.indexChunk(bounds.minX >> 1, bounds.minZ >> 1));
-                        boundaryChunks.add(com.hypixel.hytale.math.util.ChunkUtil.indexChunk(bounds.maxX >> 1, bounds.minZ >> 1));
-                        boundaryChunks.add(com.hypixel.hytale.math.util.ChunkUtil.indexChunk(bounds.minX >> 1, bounds.maxZ >> 1));
-                        boundaryChunks.add(com.hypixel.hytale.math.util.ChunkUtil.indexChunk(bounds.maxX >> 1, bounds.maxZ >> 1));
-                    }
-
-                    for (Long chunk : mapChunks) {
-                        if (!boundaryChunks.contains(chunk)) {
-                            rankedChunks.add(chunk);
-                        }
+                        addBoundary(bounds.minX >> 1, bounds.minZ >> 1);
+                        addBoundary(bounds.maxX >> 1, bounds.minZ >> 1);
+                        addBoundary(bounds.minX >> 1, bounds.maxZ >> 1);
+                        addBoundary(bounds.maxX >> 1, bounds.maxZ >> 1);
                     }
 
-                    rankedChunks.sort(Comparator.comparingDouble(idx -> {
-                        int mx = com.hypixel.hytale.math.util.ChunkUtil.xOfChunkIndex(idx);
-                        int mz = com.hypixel.hytale.math.util.ChunkUtil.zOfChunkIndex(idx);
-                        return Math.sqrt(Math.pow(mx - cx, 2) + Math.pow(mz - cz, 2));
-                    }));
-
                     int maxChunks = BetterMapConfig.getInstance().getActiveMapQuality().maxChunks;
-                    int searchLimit = maxChunks - boundaryChunks.size();
+                    int searchLimit = maxChunks - shadow.getBoundaryCount();
                     if (searchLimit < 0) searchLimit = 0;
 
-                    if (rankedChunks.size() > searchLimit) {
-                        rankedChunks = new ArrayList<>(rankedChunks.subList(0, searchLimit));
+                    // Small moves only touch the window edges; large jumps and drift rebuild it.
+                    ExploredChunksTracker source;
+                    if (BetterMapConfig.getInstance().isShareAllExploration()) {
+                        World world = player.getWorld();
+                        String worldName = world != null ? world.getName() : "world";
+                        source = ExplorationManager.getInstance().getWorldUnion(worldName).getTracker();
+                    } else {
+                        source = data.getExploredChunks();
+                    }
+                    if (source != windowSource) {
+                        window.reset();
+                        windowSource = source;
+                    }
+                    boolean rebuilt = window.update(source, cx, cz, searchLimit, IGNORE, queueUnload);
+                    if (rebuilt) {
+                        shadow.requestFullResync();
                     }
 
-                    this.targetMapChunks = new ArrayList<>(boundaryChunks);
-                    this.targetMapChunks.addAll(rankedChunks);
-
-                    this.currentIterator = rankedChunks.iterator();
-                    this.initialized = true;
+                    // Chunks that just entered the window come first, nearest first.
+                    window.forEachOrdered(collectTarget);
+                    int nearRadius = (BetterMapConfig.getInstance().getExplorationRadius() + 1) >> 1;
+                    nearRadiusSq = nearRadius * nearRadius;
+                    prioritizeNear();
 
                     if (++cleanupTimer > 100) {
                         cleanupTimer = 0;
-                        cleanupFarChunks(rankedChunks);
+                        cleanupFarChunks();
                     }
                 } catch (Exception e) {
                     LOGGER.warning("Error in RestrictedSpiralIterator.init(): " + e.getMessage());
-                    this.currentIterator = Collections.emptyIterator();
-                    this.initialized = true;
+                    clearTargets();
                 }
             }
         }
 
-        private void cleanupFarChunks(List<Long> keepChunks) {
-            try {
-                Object loadedObj = ReflectionHelper.getFieldValue(tracker, "loaded");
-                if (loadedObj instanceof Set<?> loadedSet) {
-                    if (loadedSet.size() > 20000) {
-                        Set<Long> keepSet = new HashSet<>(keepChunks);
-                        List<MapChunk> toRemovePackets = new ArrayList<>();
-
-                        Iterator<?> it = loadedSet.iterator();
-                        while (it.hasNext()) {
-                            Object obj = it.next();
-                            if (obj instanceof Long idx) {
-                                if (!keepSet.contains(idx)) {
-                                    it.remove();
-                                    int mx = com.hypixel.hytale.math.util.ChunkUtil.xOfChunkIndex(idx);
-                                    int mz = com.hypixel.hytale.math.util.ChunkUtil.zOfChunkIndex(idx);
-                                    toRemovePackets.add(new MapChunk(mx, mz, null));
-                                }
-                            }
-                        }
-
-                        if (!toRemovePackets.isEmpty()) {
-                            UpdateWorldMap packet = new UpdateWorldMap(toRemovePackets.toArray(new MapChunk[0]), null, null);
-                            sendPacket(tracker.getPlayer(), (Packet) packet);
-                        }
-                    }
+        /**
+         * Moves the chunks around the player, where new exploration shows up, ahead of the
+         * distant backfill while keeping the order within each group.
+         */
+        private void prioritizeNear() {
+            if (farScratch.length < targetCount) {
+                farScratch = new long[targets.length];
+            }
+            int near = 0;
+            int far = 0;
+            for (int i = 0; i < targetCount; i++) {
+                long idx = targets[i];
+                if (isNear(idx)) {
+                    targets[near++] = idx;
+                } else {
+                    farScratch[far++] = idx;
                 }
-            } catch (Exception e) {
-                LOGGER.warning("Failed to cleanup far chunks: " + e.getMessage());
             }
+            System.arraycopy(farScratch, 0, targets, near, far);
+        }
+
+        private boolean isNear(long idx) {
+            int dx = com.hypixel.hytale.math.util.ChunkUtil.xOfChunkIndex(idx) - centerX;
+            int dz = com.hypixel.hytale.math.util.ChunkUtil.zOfChunkIndex(idx) - centerZ;
+            return (long) dx * dx + (long) dz * dz <= nearRadiusSq;
+        }
+
+        /**
+         * Checks if the client already has a chunk, so yielding it costs no bandwidth.
+         */
+        private boolean isSent(long idx) {
+            return shadow.contains(idx) || unloadScheduler.isPending(idx);
+        }
+
+        /**
+         * Checks and clears whether the send budget ended a pass with targets still unsent.
+         *
+         * @return True if the tracker should run again on its next tick.
+         */
+        public boolean consumeThrottled() {
+            synchronized (lock) {
+                boolean result = throttled;
+                throttled = false;
+                return result;
+            }
+        }
+
+        /**
+         * Has the next unload diff check the whole shadow, catching anything the incremental
+         * diffs missed.
+         */
+        private void cleanupFarChunks() {
+            shadow.requestFullResync();
         }
 
+        /**
+         * Chunks the client already has are free; new ones wait for the send budget. When the
+         * budget refuses, the pass ends here with the cursor kept, and the iterator is marked
+         * throttled so {@link WorldMapHook#updateExplorationState} resets the tracker's update
+         * timer. The tracker then runs again next tick and either resumes from the cursor or
+         * re-inits, which rebuilds the same targets with the sent ones free, so a player who
+         * stands still keeps receiving the rest of the map.
+         */
         @Override
         public boolean hasNext() {
             if (stopped) return false;
-            Iterator<Long> iter = currentIterator;
-            return iter != null && iter.hasNext();
+            synchronized (lock) {
+                if (cursor >= targetCount)
+                    return false;
+
+                long next = targets[cursor];
+                if (sendPermitHeld || isSent(next))
+                    return true;
+                sendPermitHeld = MapSendBudget.getInstance().tryAcquire(sendAllowance, isNear(next));
+                if (!sendPermitHeld) {
+                    throttled = true;
+                }
+                return sendPermitHeld;
+            }
         }
 
         @Override
         public long next() {
-            Iterator<Long> iter = currentIterator;
-            if (stopped || iter == null || !iter.hasNext())
-                return 0;
+            synchronized (lock) {
+                if (stopped || cursor >= targetCount)
+                    return 0;
 
-            try {
-                long next = iter.next();
-                int mx = com.hypixel.hytale.math.util.ChunkUtil.xOfChunkIndex(next);
-                int mz = com.hypixel.hytale.math.util.ChunkUtil.zOfChunkIndex(next);
-                this.currentRadius = (int) Math.sqrt(Math.pow(mx - centerX, 2) + Math.pow(mz - centerZ, 2));
+                long next = targets[cursor++];
+                if (!isSent(next)) {
+                    sendPermitHeld = false;
+                }
+                shadow.add(next);
+                unloadScheduler.cancel(next);
+                int dx = com.hypixel.hytale.math.util.ChunkUtil.xOfChunkIndex(next) - centerX;
+                int dz = com.hypixel.hytale.math.util.ChunkUtil.zOfChunkIndex(next) - centerZ;
+                this.currentRadius = (int) Math.sqrt((double) dx * dx + (double) dz * dz);
                 return next;
-            } catch (java.util.NoSuchElementException e) {
-                return 0;
             }
         }
 
@@ -0,0 +1,113 @@
+package dev.ninesliced.configs;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ExplorationJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replaysAppendedRecordsInOrder() throws IOException {
+        Path journal = dir.resolve("player.log");
+        ExplorationJournal.append(journal, LongArrayList.of(1, 2, 3));
+        ExplorationJournal.append(journal, LongArrayList.of(4));
+        ExplorationJournal.append(journal, new LongArrayList());
+
+        assertArrayEquals(new long[]{1, 2, 3, 4}, ExplorationJournal.readAll(journal));
+    }
+
+    @Test
+    void missingJournalReadsEmpty() throws IOException {
+        assertArrayEquals(new long[0], ExplorationJournal.readAll(dir.resolve("absent.log")));
+    }
+
+    @Test
+    void tornTailIsDroppedAndOverwrittenByNextAppend() throws IOException {
+        Path journal = dir.resolve("player.log");
+        ExplorationJournal.append(journal, LongArrayList.of(10, 11));
+        long validLength = Files.size(journal);
+        ExplorationJournal.append(journal, LongArrayList.of(20, 21, 22));
+
+        // Simulate a crash part way through the second record.
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.WRITE)) {
+            channel.truncate(validLength + 13);
+        }
+        assertArrayEquals(new long[]{10, 11}, ExplorationJournal.readAll(journal));
+
+        ExplorationJournal.append(journal, LongArrayList.of(30));
+        assertArrayEquals(new long[]{10, 11, 30}, ExplorationJournal.readAll(journal));
+    }
+
+    @Test
+    void corruptRecordStopsReplay() throws IOException {
+        Path journal = dir.resolve("player.log");
+        ExplorationJournal.append(journal, LongArrayList.of(1));
+        long firstEnd = Files.size(journal);
+        ExplorationJournal.append(journal, LongArrayList.of(2));
+        ExplorationJournal.append(journal, LongArrayList.of(3));
+
+        byte[] bytes = Files.readAllBytes(journal);
+        bytes[(int) firstEnd + 6] ^= 0x40;
+        Files.write(journal, bytes);
+
+        assertArrayEquals(new long[]{1}, ExplorationJournal.readAll(journal));
+    }
+
+    @Test
+    void legacyJournalIsReadAndUpgradedOnAppend() throws IOException {
+        Path journal = dir.resolve("player.log");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(journal))) {
+            out.writeInt(2);
+            out.writeLong(5);
+            out.writeLong(6);
+            out.writeInt(3);
+            out.writeLong(7);
+        }
+        assertArrayEquals(new long[]{5, 6}, ExplorationJournal.readAll(journal));
+
+        ExplorationJournal.append(journal, LongArrayList.of(8));
+        long[] chunks = ExplorationJournal.readAll(journal);
+        assertArrayEquals(new long[]{5, 6, 8}, chunks);
+        assertEquals(4 + 4 + 3 * 8 + 4, Files.size(journal));
+    }
+
+    @Test
+    void appendAtCachedEndSkipsRereadingTheJournal() throws IOException {
+        Path journal = dir.resolve("player.log");
+        long end = ExplorationJournal.append(journal, LongArrayList.of(1, 2), 0);
+        assertEquals(Files.size(journal), end);
+        end = ExplorationJournal.append(journal, LongArrayList.of(3), end);
+        assertEquals(Files.size(journal), end);
+
+        LongArrayList loaded = new LongArrayList();
+        assertEquals(end, ExplorationJournal.readInto(journal, loaded));
+        assertArrayEquals(new long[]{1, 2, 3}, loaded.toLongArray());
+
+        // Garbage past the cached end is cut off without reading it.
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{1, 2, 3}), end);
+        }
+        end = ExplorationJournal.append(journal, LongArrayList.of(4), end);
+        assertArrayEquals(new long[]{1, 2, 3, 4}, ExplorationJournal.readAll(journal));
+
+        // A stale end past a deleted journal starts a new one.
+        Files.delete(journal);
+        end = ExplorationJournal.append(journal, LongArrayList.of(5), end);
+        assertEquals(Files.size(journal), end);
+        assertArrayEquals(new long[]{5}, ExplorationJournal.readAll(journal));
+    }
+}
@@ -0,0 +1,25 @@
+package dev.ninesliced.configs;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExplorationSaveQueueTest {
+
+    @Test
+    void falseResultsAndExceptionsCountAsFailed() {
+        ExplorationSaveQueue queue = new ExplorationSaveQueue(1);
+        queue.submit("ok", () -> true);
+        queue.submit("io", () -> false);
+        queue.submit("throws", () -> {
+            throw new IllegalStateException("disk full");
+        });
+
+        assertTrue(queue.flushAndAwait(5, TimeUnit.SECONDS));
+        assertEquals(3, queue.getCompletedCount());
+        assertEquals(2, queue.getFailedCount());
+    }
+}
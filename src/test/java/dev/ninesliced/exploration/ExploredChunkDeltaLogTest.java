@@ -0,0 +1,161 @@
+package dev.ninesliced.exploration;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExploredChunkDeltaLogTest {
+
+    @Test
+    void consumersFollowTheLogIndependently() {
+        ExploredChunkDeltaLog log = new ExploredChunkDeltaLog(8);
+        long first = log.getSequence();
+        log.append(1);
+        log.append(2);
+        long second = log.getSequence();
+        log.append(3);
+
+        LongArrayList seen = new LongArrayList();
+        long next = log.drain(first, seen::add);
+        assertArrayEquals(new long[]{1, 2, 3}, seen.toLongArray());
+        assertEquals(log.getSequence(), next);
+
+        seen.clear();
+        assertEquals(next, log.drain(second, seen::add));
+        assertArrayEquals(new long[]{3}, seen.toLongArray());
+
+        seen.clear();
+        assertEquals(next, log.drain(next, seen::add));
+        assertEquals(0, seen.size());
+        assertEquals(0, log.pending(next));
+    }
+
+    @Test
+    void fixedLogOverflowsSlowConsumers() {
+        ExploredChunkDeltaLog log = new ExploredChunkDeltaLog(4);
+        ExploredChunkDeltaLog.Cursor cursor = log.register();
+        long start = cursor.getPosition();
+        for (long i = 0; i < 5; i++) {
+            log.append(i);
+        }
+
+        assertEquals(4, log.getCapacity());
+        assertFalse(log.drain(cursor, chunk -> {
+        }));
+        assertEquals(start, cursor.getPosition());
+        assertEquals(-1, log.pending(start));
+
+        LongArrayList seen = new LongArrayList();
+        log.drain(start + 1, seen::add);
+        assertArrayEquals(new long[]{1, 2, 3, 4}, seen.toLongArray());
+
+        log.reset(cursor);
+        log.append(5);
+        seen.clear();
+        assertTrue(log.drain(cursor, seen::add));
+        assertArrayEquals(new long[]{5}, seen.toLongArray());
+    }
+
+    @Test
+    void growingLogKeepsEntriesForSlowCursorsUntilMaxCapacity() {
+        ExploredChunkDeltaLog log = new ExploredChunkDeltaLog(4, 16);
+        ExploredChunkDeltaLog.Cursor cursor = log.register();
+        // Start part way round the ring so growth has to unwrap it.
+        for (long i = 0; i < 3; i++) {
+            log.append(-i);
+        }
+        assertTrue(log.drain(cursor, chunk -> {
+        }));
+
+        for (long i = 0; i < 16; i++) {
+            log.append(i);
+        }
+        assertEquals(16, log.getCapacity());
+
+        long before = cursor.getPosition();
+        LongArrayList seen = new LongArrayList();
+        assertTrue(log.drain(cursor, seen::add));
+        assertEquals(log.getSequence(), cursor.getPosition());
+        assertEquals(16, seen.size());
+        for (int i = 0; i < 16; i++) {
+            assertEquals(i, seen.getLong(i));
+        }
+
+        // Caught up again, so the ring shrinks back.
+        assertEquals(4, log.getCapacity());
+        for (long i = 0; i < 17; i++) {
+            log.append(i);
+        }
+        assertEquals(16, log.getCapacity());
+        assertFalse(log.drain(cursor, chunk -> {
+        }));
+        assertEquals(ExploredChunkDeltaLog.OVERFLOW, log.drain(before, chunk -> {
+        }));
+    }
+
+    @Test
+    void caughtUpCursorsKeepTheRingSmall() {
+        ExploredChunkDeltaLog log = new ExploredChunkDeltaLog(4, 1 << 12);
+        ExploredChunkDeltaLog.Cursor first = log.register();
+        ExploredChunkDeltaLog.Cursor second = log.register();
+        LongArrayList seen = new LongArrayList();
+        for (long i = 0; i < 10_000; i++) {
+            log.append(i);
+            if (i % 3 == 0) {
+                assertTrue(log.drain(first, seen::add));
+                assertTrue(log.drain(second, chunk -> {
+                }));
+            }
+        }
+        assertTrue(log.drain(first, seen::add));
+        assertEquals(10_000, seen.size());
+        assertEquals(4, log.getCapacity());
+
+        // Without any cursors nothing is kept at all.
+        log.release(first);
+        log.release(second);
+        for (long i = 0; i < 10_000; i++) {
+            log.append(i);
+        }
+        assertEquals(4, log.getCapacity());
+    }
+
+    @Test
+    void releasedCursorStopsHoldingEntries() {
+        ExploredChunkDeltaLog log = new ExploredChunkDeltaLog(4, 64);
+        ExploredChunkDeltaLog.Cursor lagging = log.register();
+        ExploredChunkDeltaLog.Cursor live = log.register();
+        for (long i = 0; i < 40; i++) {
+            log.append(i);
+            log.drain(live, chunk -> {
+            });
+        }
+        assertEquals(64, log.getCapacity());
+
+        log.release(lagging);
+        assertEquals(4, log.getCapacity());
+        assertTrue(log.drain(live, chunk -> {
+        }));
+    }
+
+    @Test
+    void clearOverflowsEveryConsumer() {
+        ExploredChunkDeltaLog log = new ExploredChunkDeltaLog();
+        log.append(7);
+        long caughtUp = log.getSequence();
+        log.clear();
+
+        assertEquals(ExploredChunkDeltaLog.OVERFLOW, log.drain(caughtUp, chunk -> {
+        }));
+
+        long restart = log.getSequence();
+        log.append(8);
+        LongArrayList seen = new LongArrayList();
+        log.drain(restart, seen::add);
+        assertArrayEquals(new long[]{8}, seen.toLongArray());
+    }
+}
@@ -0,0 +1,148 @@
+package dev.ninesliced.exploration;
+
+import dev.ninesliced.utils.ChunkUtil;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MapChunkIndexTest {
+
+    private static long distanceSq(long mapChunk, int centerX, int centerZ) {
+        long dx = ChunkUtil.indexToChunkX(mapChunk) - centerX;
+        long dz = ChunkUtil.indexToChunkZ(mapChunk) - centerZ;
+        return dx * dx + dz * dz;
+    }
+
+    private static long[] sortedDistances(long[] mapChunks, int centerX, int centerZ) {
+        long[] distances = new long[mapChunks.length];
+        for (int i = 0; i < mapChunks.length; i++) {
+            distances[i] = distanceSq(mapChunks[i], centerX, centerZ);
+        }
+        Arrays.sort(distances);
+        return distances;
+    }
+
+    @Test
+    void countsWorldChunksPerMapChunk() {
+        MapChunkIndex index = new MapChunkIndex();
+        assertTrue(index.increment(ChunkUtil.chunkCoordsToIndex(0, 0)));
+        assertFalse(index.increment(ChunkUtil.chunkCoordsToIndex(1, 1)));
+        assertTrue(index.increment(ChunkUtil.chunkCoordsToIndex(-1, 0)));
+
+        assertEquals(2, index.getCount(0, 0));
+        assertEquals(1, index.getCount(-1, 0));
+        assertEquals(0, index.getCount(5, 5));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void snapshotIsUnaffectedByLaterWrites() {
+        MapChunkIndex index = new MapChunkIndex();
+        index.increment(ChunkUtil.chunkCoordsToIndex(0, 0));
+        MapChunkIndex.View view = index.snapshot();
+
+        index.increment(ChunkUtil.chunkCoordsToIndex(1, 0));
+        index.increment(ChunkUtil.chunkCoordsToIndex(100, 100));
+
+        assertEquals(1, view.getCount(0, 0));
+        assertEquals(0, view.getCount(50, 50));
+        assertEquals(1, view.size());
+        assertEquals(2, index.getCount(0, 0));
+    }
+
+    @Test
+    void nearestReturnsEverythingWhenUnderLimit() {
+        MapChunkIndex index = new MapChunkIndex();
+        assertEquals(0, index.snapshot().nearest(0, 0, 10).length);
+
+        index.increment(ChunkUtil.chunkCoordsToIndex(10, 0));
+        index.increment(ChunkUtil.chunkCoordsToIndex(2, 0));
+        index.increment(ChunkUtil.chunkCoordsToIndex(-200, 300));
+
+        long[] nearest = index.snapshot().nearest(0, 0, 10);
+        assertArrayEquals(new long[]{
+                ChunkUtil.chunkCoordsToIndex(1, 0),
+                ChunkUtil.chunkCoordsToIndex(5, 0),
+                ChunkUtil.chunkCoordsToIndex(-100, 150)}, nearest);
+        assertEquals(0, index.snapshot().nearest(0, 0, 0).length);
+    }
+
+    @Test
+    void nearestMatchesBruteForceAcrossPages() {
+        Random random = new Random(7);
+        MapChunkIndex index = new MapChunkIndex();
+        LongOpenHashSet worldChunks = new LongOpenHashSet();
+        for (int i = 0; i < 5000; i++) {
+            long chunk = ChunkUtil.chunkCoordsToIndex(random.nextInt(600) - 300, random.nextInt(600) - 300);
+            if (worldChunks.add(chunk)) {
+                index.increment(chunk);
+            }
+        }
+        MapChunkIndex.View view = index.snapshot();
+
+        LongArrayList all = new LongArrayList();
+        view.forEach((x, z, count) -> all.add(ChunkUtil.chunkCoordsToIndex(x, z)));
+        assertEquals(view.size(), all.size());
+
+        int[][] queries = {{0, 0}, {140, -140}, {-500, 20}, {33, 31}};
+        for (int[] query : queries) {
+            for (int limit : new int[]{1, 17, 500}) {
+                long[] nearest = view.nearest(query[0], query[1], limit);
+                assertEquals(limit, nearest.length);
+
+                // Ties may be broken either way, so compare the distances rather than the chunks.
+                long[] expected = Arrays.copyOf(sortedDistances(all.toLongArray(), query[0], query[1]), limit);
+                long[] actual = new long[limit];
+                for (int i = 0; i < limit; i++) {
+                    actual[i] = distanceSq(nearest[i], query[0], query[1]);
+                    assertTrue(view.getCount(ChunkUtil.indexToChunkX(nearest[i]), ChunkUtil.indexToChunkZ(nearest[i])) > 0);
+                }
+                assertArrayEquals(expected, actual);
+            }
+        }
+    }
+
+    @Test
+    void nearestMatchesBruteForceForSparseFarPages() {
+        Random random = new Random(11);
+        MapChunkIndex index = new MapChunkIndex();
+        LongArrayList all = new LongArrayList();
+        // A dense patch at the origin plus scattered chunks far enough apart to fall back to sorting pages.
+        for (int x = -40; x < 40; x++) {
+            for (int z = -40; z < 40; z += 3) {
+                index.increment(ChunkUtil.chunkCoordsToIndex(x, z));
+            }
+        }
+        for (int i = 0; i < 200; i++) {
+            index.increment(ChunkUtil.chunkCoordsToIndex(random.nextInt(400_000) - 200_000, random.nextInt(400_000) - 200_000));
+        }
+        MapChunkIndex.View view = index.snapshot();
+        view.forEach((x, z, count) -> all.add(ChunkUtil.chunkCoordsToIndex(x, z)));
+
+        int[][] queries = {{0, 0}, {15, -3}, {50_000, 50_000}, {-99_000, 12}};
+        for (int[] query : queries) {
+            for (int limit : new int[]{1, 100, view.size()}) {
+                long[] nearest = view.nearest(query[0], query[1], limit);
+                long[] expected = Arrays.copyOf(sortedDistances(all.toLongArray(), query[0], query[1]), limit);
+                assertArrayEquals(expected, sortedDistances(nearest, query[0], query[1]));
+                assertArrayEquals(sortedDistances(nearest, query[0], query[1]), distances(nearest, query[0], query[1]));
+            }
+        }
+    }
+
+    private static long[] distances(long[] mapChunks, int centerX, int centerZ) {
+        long[] distances = new long[mapChunks.length];
+        for (int i = 0; i < mapChunks.length; i++) {
+            distances[i] = distanceSq(mapChunks[i], centerX, centerZ);
+        }
+        return distances;
+    }
+}
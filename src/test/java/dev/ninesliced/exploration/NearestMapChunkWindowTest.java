@@ -0,0 +1,175 @@
+package dev.ninesliced.exploration;
+
+import dev.ninesliced.utils.ChunkUtil;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NearestMapChunkWindowTest {
+
+    private static final int LIMIT = 400;
+    private static final int FILL = LIMIT - (LIMIT >> 3);
+
+    private ExploredChunksTracker explored;
+    private NearestMapChunkWindow window;
+    private final LongOpenHashSet mirror = new LongOpenHashSet();
+    private final LongArrayList added = new LongArrayList();
+    private final LongArrayList removed = new LongArrayList();
+
+    @BeforeEach
+    void setUp() {
+        // Map chunks -30..30 on both axes, fully explored.
+        explored = new ExploredChunksTracker(null);
+        LongArrayList chunks = new LongArrayList();
+        for (int x = -60; x <= 61; x++) {
+            for (int z = -60; z <= 61; z++) {
+                chunks.add(ChunkUtil.chunkCoordsToIndex(x, z));
+            }
+        }
+        explored.markChunksExplored(chunks.toLongArray());
+        window = new NearestMapChunkWindow();
+    }
+
+    private boolean update(int centerX, int centerZ) {
+        added.clear();
+        removed.clear();
+        boolean rebuilt = window.update(explored, centerX, centerZ, LIMIT, chunk -> {
+            added.add(chunk);
+            assertTrue(mirror.add(chunk), "added twice");
+        }, chunk -> {
+            removed.add(chunk);
+            assertTrue(mirror.remove(chunk), "removed without being added");
+        });
+        assertEquals(mirror.size(), window.size());
+        assertTrue(window.size() <= LIMIT, "window exceeds the limit");
+        return rebuilt;
+    }
+
+    private static long distanceSq(long mapChunk, int centerX, int centerZ) {
+        long dx = ChunkUtil.indexToChunkX(mapChunk) - centerX;
+        long dz = ChunkUtil.indexToChunkZ(mapChunk) - centerZ;
+        return dx * dx + dz * dz;
+    }
+
+    /**
+     * Squared distance below which every explored map chunk must be in a window built at the center.
+     */
+    private long innerRadiusSq(int centerX, int centerZ) {
+        long[] nearest = explored.getMapChunks().nearest(centerX, centerZ, FILL);
+        return distanceSq(nearest[nearest.length - 1], centerX, centerZ) - 1;
+    }
+
+    private void assertCoversRadius(int centerX, int centerZ, long radiusSq) {
+        explored.getMapChunks().forEach((x, z, count) -> {
+            long chunk = ChunkUtil.chunkCoordsToIndex(x, z);
+            if (distanceSq(chunk, centerX, centerZ) <= radiusSq) {
+                assertTrue(window.contains(chunk), "missing " + x + "," + z);
+            }
+        });
+    }
+
+    @Test
+    void firstUpdateTakesTheNearestChunks() {
+        assertTrue(update(0, 0));
+        assertEquals(FILL, window.size());
+        assertEquals(FILL, added.size());
+        assertCoversRadius(0, 0, innerRadiusSq(0, 0));
+    }
+
+    @Test
+    void smallStepOnlyAddsTheLeadingCrescent() {
+        update(0, 0);
+        long radiusSq = innerRadiusSq(0, 0);
+
+        assertFalse(update(1, 0));
+        assertFalse(added.isEmpty());
+        for (int i = 0; i < added.size(); i++) {
+            long chunk = added.getLong(i);
+            assertTrue(distanceSq(chunk, 1, 0) <= radiusSq, "added outside the radius");
+            assertTrue(distanceSq(chunk, 0, 0) > radiusSq, "added inside the old window");
+        }
+        assertCoversRadius(1, 0, radiusSq);
+    }
+
+    @Test
+    void hysteresisKeepsEdgeChunksWhenSteppingBackAndForth() {
+        update(0, 0);
+        LongOpenHashSet initial = new LongOpenHashSet(mirror);
+
+        assertFalse(update(1, 0));
+        assertTrue(removed.isEmpty());
+        assertFalse(update(0, 0));
+        assertTrue(removed.isEmpty());
+        assertTrue(added.isEmpty());
+        assertTrue(mirror.containsAll(initial));
+    }
+
+    @Test
+    void walkingAwayEventuallyDropsTrailingChunks() {
+        update(0, 0);
+        long radiusSq = innerRadiusSq(0, 0);
+
+        int removals = 0;
+        for (int x = 1; x <= 8; x++) {
+            update(x, 0);
+            removals += removed.size();
+            for (int i = 0; i < removed.size(); i++) {
+                assertTrue(distanceSq(removed.getLong(i), x, 0) > radiusSq, "removed a chunk still in range");
+            }
+            assertCoversRadius(x, 0, radiusSq);
+            assertTrue(window.size() <= LIMIT);
+        }
+        assertTrue(removals > 0);
+        assertTrue(window.size() <= LIMIT);
+    }
+
+    @Test
+    void longWalkNeverExceedsTheLimit() {
+        update(0, 0);
+        int rebuilds = 0;
+        for (int step = 1; step <= 40; step++) {
+            if (update(step % 2 == 0 ? step : step - 1, step)) {
+                rebuilds++;
+            }
+            assertTrue(window.size() <= LIMIT);
+        }
+        assertTrue(rebuilds < 40);
+    }
+
+    @Test
+    void newlyExploredChunksComeFromTheDeltaLog() {
+        explored = new ExploredChunksTracker(null);
+        LongArrayList chunks = new LongArrayList();
+        for (int x = -60; x <= 61; x++) {
+            for (int z = -60; z <= 61; z++) {
+                // Leave map chunk (2, 2) unexplored.
+                if ((x >> 1) != 2 || (z >> 1) != 2) {
+                    chunks.add(ChunkUtil.chunkCoordsToIndex(x, z));
+                }
+            }
+        }
+        explored.markChunksExplored(chunks.toLongArray());
+        update(0, 0);
+        long hole = ChunkUtil.chunkCoordsToIndex(2, 2);
+        assertFalse(window.contains(hole));
+
+        explored.markChunkExplored(ChunkUtil.chunkCoordsToIndex(4, 5));
+        explored.markChunkExplored(ChunkUtil.chunkCoordsToIndex(1000, 1000));
+        assertFalse(update(0, 0));
+        assertEquals(1, added.size());
+        assertTrue(window.contains(hole));
+        assertFalse(window.contains(ChunkUtil.chunkCoordsToIndex(500, 500)));
+    }
+
+    @Test
+    void largeJumpRebuilds() {
+        update(0, 0);
+        assertTrue(update(20, 20));
+        assertCoversRadius(20, 20, innerRadiusSq(20, 20));
+    }
+}
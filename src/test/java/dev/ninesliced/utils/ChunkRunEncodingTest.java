@@ -0,0 +1,87 @@
+package dev.ninesliced.utils;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChunkRunEncodingTest {
+
+    private static long[] roundTrip(long[] chunks) {
+        byte[] encoded = ChunkRunEncoding.encode(chunks.clone());
+        LongArrayList decoded = new LongArrayList();
+        int count = ChunkRunEncoding.decode(ChunkRunEncoding.unpackBytes(ChunkRunEncoding.packBytes(encoded)), decoded::add);
+        assertEquals(decoded.size(), count);
+        return decoded.toLongArray();
+    }
+
+    @Test
+    void emptySetRoundTrips() {
+        assertArrayEquals(new long[0], roundTrip(new long[0]));
+    }
+
+    @Test
+    void contiguousColumnsRoundTripSortedAndCompact() {
+        long[] chunks = new long[64 * 64];
+        int n = 0;
+        for (int x = -32; x < 32; x++) {
+            for (int z = -32; z < 32; z++) {
+                chunks[n++] = ChunkUtil.chunkCoordsToIndex(x, z);
+            }
+        }
+
+        long[] expected = chunks.clone();
+        Arrays.sort(expected);
+        assertArrayEquals(expected, roundTrip(chunks));
+        // A few bytes per column rather than eight per chunk.
+        assertTrue(ChunkRunEncoding.encode(chunks.clone()).length < 64 * 16);
+    }
+
+    @Test
+    void duplicatesAndExtremeIndicesRoundTrip() {
+        long[] chunks = {Long.MAX_VALUE, 5, Long.MIN_VALUE, 5, -1, 0, 6, Long.MAX_VALUE};
+        assertArrayEquals(new long[]{Long.MIN_VALUE, -1, 0, 5, 6, Long.MAX_VALUE}, roundTrip(chunks));
+    }
+
+    @Test
+    void randomSetsRoundTrip() {
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            long[] chunks = new long[random.nextInt(2000)];
+            for (int i = 0; i < chunks.length; i++) {
+                chunks[i] = ChunkUtil.chunkCoordsToIndex(random.nextInt(200) - 100, random.nextInt(200) - 100);
+            }
+            long[] expected = Arrays.stream(chunks).distinct().sorted().toArray();
+            assertArrayEquals(expected, roundTrip(chunks));
+        }
+    }
+
+    @Test
+    void packBytesRoundTripsEveryLength() {
+        for (int length = 0; length < 20; length++) {
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = (byte) (i * 37 - 100);
+            }
+            assertArrayEquals(bytes, ChunkRunEncoding.unpackBytes(ChunkRunEncoding.packBytes(bytes)));
+        }
+    }
+
+    @Test
+    void malformedInputIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ChunkRunEncoding.decode(new byte[]{7, 0}, chunk -> {
+        }));
+        assertThrows(IllegalArgumentException.class, () -> ChunkRunEncoding.unpackBytes(new long[]{100, 0}));
+
+        // Declares two chunks but holds a run of three.
+        byte[] overlong = {ChunkRunEncoding.FORMAT_RUNS, 2, 0, 2};
+        assertThrows(IllegalArgumentException.class, () -> ChunkRunEncoding.decode(overlong, chunk -> {
+        }));
+    }
+}
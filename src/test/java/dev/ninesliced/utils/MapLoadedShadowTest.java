@@ -0,0 +1,81 @@
+package dev.ninesliced.utils;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MapLoadedShadowTest {
+
+    private static final long A = ChunkUtil.chunkCoordsToIndex(0, 0);
+    private static final long B = ChunkUtil.chunkCoordsToIndex(1, 0);
+    private static final long CORNER = ChunkUtil.chunkCoordsToIndex(-50, 40);
+    private static final long NEW_CORNER = ChunkUtil.chunkCoordsToIndex(-60, 40);
+
+    private final LongOpenHashSet window = new LongOpenHashSet();
+
+    private long[] diff(MapLoadedShadow shadow) {
+        LongArrayList unloaded = new LongArrayList();
+        shadow.diff(window::contains, unloaded::add);
+        return unloaded.toLongArray();
+    }
+
+    @Test
+    void fullResyncUnloadsEverythingOutsideTheTargets() {
+        MapLoadedShadow shadow = new MapLoadedShadow();
+        shadow.addBoundary(CORNER);
+        shadow.add(A);
+        shadow.add(B);
+        shadow.add(CORNER);
+        window.add(A);
+
+        assertArrayEquals(new long[]{B}, diff(shadow));
+        assertFalse(shadow.contains(B));
+        assertTrue(shadow.contains(CORNER));
+
+        // Later diffs only look at candidates.
+        window.remove(A);
+        assertEquals(0, diff(shadow).length);
+        shadow.markCandidate(A);
+        shadow.markCandidate(A);
+        assertArrayEquals(new long[]{A}, diff(shadow));
+    }
+
+    @Test
+    void chunkLeftBehindAsBoundaryIsUnloaded() {
+        MapLoadedShadow shadow = new MapLoadedShadow();
+        shadow.addBoundary(CORNER);
+        shadow.add(A);
+        shadow.add(CORNER);
+        window.add(A);
+        assertEquals(0, diff(shadow).length);
+
+        // The explored bounds grew past the old corner, which is far outside the window.
+        shadow.clearBoundaries();
+        shadow.addBoundary(NEW_CORNER);
+        shadow.add(NEW_CORNER);
+        assertArrayEquals(new long[]{CORNER}, diff(shadow));
+        assertTrue(shadow.contains(NEW_CORNER));
+        assertTrue(shadow.contains(A));
+    }
+
+    @Test
+    void formerBoundaryStillInTheWindowStaysLoaded() {
+        MapLoadedShadow shadow = new MapLoadedShadow();
+        shadow.addBoundary(A);
+        shadow.add(A);
+        window.add(A);
+        diff(shadow);
+
+        shadow.clearBoundaries();
+        shadow.addBoundary(A);
+        shadow.clearBoundaries();
+        assertEquals(0, diff(shadow).length);
+        assertTrue(shadow.contains(A));
+        assertEquals(0, shadow.getBoundaryCount());
+    }
+}